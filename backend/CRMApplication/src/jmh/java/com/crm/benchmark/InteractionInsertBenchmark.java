@@ -0,0 +1,177 @@
+package com.crm.benchmark;
+
+import com.crm.CrmApplication;
+import com.crm.model.Interaction;
+import com.crm.model.User;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second for persisting 100k interactions in one transaction, flushing and clearing every
+ * hibernate.jdbc.batch_size rows, on H2 in MySQL mode. "identity" persists {@link IdentityInteraction},
+ * a copy of Interaction still mapped with an IDENTITY key, so Hibernate must run each INSERT on its
+ * own to read the key back. "pooled" persists the real Interaction, whose ids come from the pooled-lo
+ * table generator, so the rows go out in JDBC batches.
+ *
+ * H2 runs in-process, where a round trip costs next to nothing, so rttMicros adds a simulated
+ * network round trip to every statement execution, batch and commit (see LatencyInjectingDriver).
+ * With rttMicros=0 the comparison is CPU cost only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class InteractionInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"identity", "pooled"})
+    public String mode;
+
+    @Param({"0", "200"})
+    public long rttMicros;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private JdbcTemplate jdbc;
+    private long customerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(CrmApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + LatencyInjectingDriver.url(rttMicros,
+                                "jdbc:h2:mem:insert-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"),
+                        "--spring.datasource.driver-class-name=" + LatencyInjectingDriver.class.getName(),
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + BATCH_SIZE,
+                        "--spring.mail.host=localhost",
+                        "--spring.mail.port=1",
+                        "--search.index.dir=" + Files.createTempDirectory("crm-benchmark-index"),
+                        "--logging.level.root=WARN");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        customerId = jdbc.queryForObject("SELECT id FROM users WHERE username = 'admin'", Long.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTables() {
+        jdbc.execute("DELETE FROM interaction_identity");
+        jdbc.execute("DELETE FROM interaction");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long insert() {
+        boolean identity = "identity".equals(mode);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            User customer = entityManager.getReference(User.class, customerId);
+            LocalDateTime now = LocalDateTime.now();
+            long lastId = 0;
+            for (int i = 0; i < ROWS; i++) {
+                String subject = "Interaction " + i;
+                String notes = "Notes for interaction " + i;
+                if (identity) {
+                    IdentityInteraction row = new IdentityInteraction(customer, "call", subject, now, "PENDING", notes);
+                    entityManager.persist(row);
+                    lastId = row.id;
+                } else {
+                    Interaction row = new Interaction(customer, "call", subject, now, "PENDING", notes);
+                    entityManager.persist(row);
+                    lastId = row.getId();
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    customer = entityManager.getReference(User.class, customerId);
+                }
+            }
+            entityManager.getTransaction().commit();
+            return lastId;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Interaction as it was mapped before the table generators. Picked up by the application's entity
+     * scan only when the benchmark classes are on the classpath.
+     */
+    @Entity
+    @Table(name = "interaction_identity")
+    public static class IdentityInteraction {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @ManyToOne
+        @JoinColumn(name = "customer_id", nullable = false)
+        private User customer;
+
+        private String type;
+        private String subject;
+        private LocalDateTime date;
+        private String status;
+
+        @Lob
+        private String notes;
+
+        protected IdentityInteraction() {
+        }
+
+        IdentityInteraction(User customer, String type, String subject, LocalDateTime date, String status, String notes) {
+            this.customer = customer;
+            this.type = type;
+            this.subject = subject;
+            this.date = date;
+            this.status = status;
+            this.notes = notes;
+        }
+    }
+}
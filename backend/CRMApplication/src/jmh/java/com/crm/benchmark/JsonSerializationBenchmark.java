@@ -0,0 +1,100 @@
+package com.crm.benchmark;
+
+import com.crm.dto.InteractionView;
+import com.crm.model.Interaction;
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the paged list responses, using an ObjectMapper configured the way
+ * Spring Boot configures the MVC one. Page&lt;Interaction&gt; (entity with the full customer) is
+ * kept as the baseline for the InteractionView projection the endpoints now return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Interaction> interactionEntities;
+    private Page<InteractionView> interactionViews;
+    private Page<User> users;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<User> userRows = new ArrayList<>();
+        List<Interaction> interactionRows = new ArrayList<>();
+        List<InteractionView> viewRows = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            User user = newUser(i);
+            userRows.add(user);
+            Interaction interaction = new Interaction(user, "call", "Follow-up call " + i, LocalDateTime.now(), "PENDING",
+                    "Discussed renewal terms and next steps for the enterprise plan.");
+            interaction.setId((long) i);
+            interactionRows.add(interaction);
+            viewRows.add(InteractionView.from(interaction));
+        }
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        users = new PageImpl<>(userRows, pageable, 10_000);
+        interactionEntities = new PageImpl<>(interactionRows, pageable, 10_000);
+        interactionViews = new PageImpl<>(viewRows, pageable, 10_000);
+    }
+
+    @Benchmark
+    public byte[] interactionEntityPage() throws Exception {
+        return objectMapper.writeValueAsBytes(interactionEntities);
+    }
+
+    @Benchmark
+    public byte[] interactionViewPage() throws Exception {
+        return objectMapper.writeValueAsBytes(interactionViews);
+    }
+
+    @Benchmark
+    public byte[] userPage() throws Exception {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    private static User newUser(int i) {
+        User user = new User();
+        user.setId((long) i);
+        user.setUsername("customer" + i);
+        user.setEmail("customer" + i + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5RCa0Zl0GgA3bPXUxd5R1C2");
+        user.setRole(Role.ROLE_CUSTOMER);
+        user.setStatus(User.UserStatus.ACTIVE);
+        user.setAge(30);
+        user.setAddress("12 Market Street, Springfield");
+        user.setJoinDate(LocalDateTime.now());
+        return user;
+    }
+}
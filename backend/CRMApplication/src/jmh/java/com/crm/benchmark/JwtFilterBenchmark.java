@@ -0,0 +1,120 @@
+package com.crm.benchmark;
+
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.crm.security.JwtAuthenticationFilter;
+import com.crm.security.JwtUtil;
+import com.crm.security.UserStatusCache;
+import com.crm.settings.SystemSettingsHolder;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication: the original filter path (three parses, a new key
+ * and parser per parse) against the current JwtAuthenticationFilter with its verified-token cache
+ * and claims-based principal. The status cache is stubbed so only the filter itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    static final String SECRET = "YourSuperSecretKeyForThisCRMApplicationWhichIsVeryLongAndSecureAndBase64Encoded";
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private UserDetailsService userDetailsService;
+    private String token;
+    private final FilterChain noopChain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+        user.setRole(Role.ROLE_CUSTOMER);
+        user.setStatus(User.UserStatus.ACTIVE);
+        userDetailsService = username -> user;
+
+        jwtUtil = newJwtUtil();
+        token = jwtUtil.generateToken(user);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "userStatusCache", new UserStatusCache() {
+            @Override
+            public User.UserStatus getStatus(Long userId) {
+                return User.UserStatus.ACTIVE;
+            }
+        });
+    }
+
+    static JwtUtil newJwtUtil() {
+        return newJwtUtil(10_000);
+    }
+
+    static JwtUtil newJwtUtil(int cacheMaxSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(util, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.setField(util, "meterRegistry", new SimpleMeterRegistry());
+        // Never loaded, so it serves the defaults and tokens use jwt.expiration
+        ReflectionTestUtils.setField(util, "systemSettingsHolder", new SystemSettingsHolder());
+        util.init();
+        return util;
+    }
+
+    @Benchmark
+    public Object legacyFilterPath() {
+        // Mirrors the original doFilterInternal: extractUsername + validateToken (subject + expiration)
+        String username = legacyParse(token).getSubject();
+        Object userDetails = userDetailsService.loadUserByUsername(username);
+        boolean valid = legacyParse(token).getSubject().equals(username)
+                && !legacyParse(token).getExpiration().before(new Date());
+        return valid ? userDetails : null;
+    }
+
+    @Benchmark
+    public Object cachedFilterPath() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), noopChain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,64 @@
+package com.crm.benchmark;
+
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.crm.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil on its own: signing a token, validating a token that has to be verified
+ * (cache miss), and validating one the verified-token cache already knows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+        user.setRole(Role.ROLE_CUSTOMER);
+        user.setStatus(User.UserStatus.ACTIVE);
+
+        jwtUtil = JwtFilterBenchmark.newJwtUtil(10_000);
+        uncachedJwtUtil = JwtFilterBenchmark.newJwtUtil(0);
+        token = jwtUtil.generateToken(user);
+        jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncachedJwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return jwtUtil.validateToken(token, user);
+    }
+}
@@ -0,0 +1,105 @@
+package com.crm.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver that forwards to another driver and waits a fixed time on every call that would
+ * cost a network round trip against a remote database: statement execution, batch execution,
+ * commit and rollback. Lets H2 stand in for MySQL when what is measured is the number of round
+ * trips. URL form: jdbc:latency:&lt;micros&gt;:&lt;rest of the target URL after "jdbc:"&gt;.
+ */
+public class LatencyInjectingDriver implements Driver {
+
+    private static final String PREFIX = "jdbc:latency:";
+    private static final Set<String> ROUND_TRIPS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch", "commit", "rollback");
+
+    static {
+        try {
+            DriverManager.registerDriver(new LatencyInjectingDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static String url(long roundTripMicros, String targetUrl) {
+        return PREFIX + roundTripMicros + ":" + targetUrl.substring("jdbc:".length());
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        String rest = url.substring(PREFIX.length());
+        int colon = rest.indexOf(':');
+        long delayNanos = Long.parseLong(rest.substring(0, colon)) * 1_000;
+        Connection target = DriverManager.getConnection("jdbc:" + rest.substring(colon + 1), info);
+        return delayNanos == 0 ? target : wrap(Connection.class, target, delayNanos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target, long delayNanos) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (ROUND_TRIPS.contains(method.getName())) {
+                LockSupport.parkNanos(delayNanos);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // Statements handed out by the connection need the same treatment
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return wrap((Class<Object>) method.getReturnType(), result, delayNanos);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
@@ -0,0 +1,114 @@
+package com.crm.benchmark;
+
+import com.crm.dto.AuthRequest;
+import com.crm.dto.AuthResponse;
+import com.crm.model.RefreshToken;
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.crm.repository.RefreshTokenRepository;
+import com.crm.repository.UserRepository;
+import com.crm.security.LoginThrottle;
+import com.crm.service.impl.AuthServiceImpl;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthServiceImpl.login end to end (DaoAuthenticationProvider, BCrypt check, token issue) with the
+ * repositories stubbed, next to the bare BCrypt comparison that dominates it and the refresh-token
+ * exchange that replaces most logins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private AuthServiceImpl authService;
+    private AuthRequest request;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+        user.setPassword(hash);
+        user.setRole(Role.ROLE_CUSTOMER);
+        user.setStatus(User.UserStatus.ACTIVE);
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> user);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        authService = new AuthServiceImpl();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(authService, "authenticationManager", new ProviderManager(provider));
+        ReflectionTestUtils.setField(authService, "jwtUtil", JwtFilterBenchmark.newJwtUtil());
+        // Throttling disabled: every iteration signs in as the same user from the same address
+        LoginThrottle loginThrottle = new LoginThrottle();
+        ReflectionTestUtils.setField(loginThrottle, "maxAttemptsPerAddress", 0);
+        ReflectionTestUtils.setField(loginThrottle, "maxFailuresPerUser", 0);
+        ReflectionTestUtils.setField(authService, "loginThrottle", loginThrottle);
+
+        // Refresh path: one stubbed lookup returning a live token, rotation always wins
+        RefreshToken stored = new RefreshToken();
+        stored.setId(1L);
+        stored.setFamilyId("benchmark-family");
+        stored.setUser(user);
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+        RefreshTokenRepository refreshTokenRepository = Mockito.mock(RefreshTokenRepository.class);
+        Mockito.when(refreshTokenRepository.findByTokenHashWithUser(Mockito.anyString())).thenReturn(Optional.of(stored));
+        Mockito.when(refreshTokenRepository.markRotated(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+        ReflectionTestUtils.setField(authService, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(authService, "refreshExpirationMs", TimeUnit.DAYS.toMillis(14));
+
+        request = new AuthRequest();
+        request.setUsername(user.getUsername());
+        request.setPassword(PASSWORD);
+        request.setRole("customer");
+    }
+
+    @Benchmark
+    public AuthResponse login() {
+        return authService.login(request, "127.0.0.1");
+    }
+
+    @Benchmark
+    public AuthResponse refresh() {
+        return authService.refresh("benchmark-refresh-token");
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,165 @@
+package com.crm.benchmark;
+
+import com.crm.CrmApplication;
+import com.crm.dto.InteractionView;
+import com.crm.model.IdGenerators;
+import com.crm.repository.IdSequenceRepository;
+import com.crm.repository.InteractionRepository;
+import com.crm.service.AdminService;
+import com.crm.service.AnalyticsRollupService;
+import com.crm.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository and service read paths against an in-memory H2 database in MySQL mode, booted
+ * through the real application context. Numbers are only comparable with each other and across
+ * builds, not with production MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int CUSTOMERS = 200;
+    private static final int INTERACTIONS_PER_CUSTOMER = 50;
+    private static final int HOT_CUSTOMER_INTERACTIONS = 5_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 200;
+
+    private ConfigurableApplicationContext context;
+    private InteractionRepository interactionRepository;
+    private CustomerService customerService;
+    private AdminService adminService;
+    private long hotCustomerId;
+    private InteractionView deepCursorRow;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(CrmApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.mail.host=localhost",
+                        "--spring.mail.port=1",
+                        "--search.index.dir=" + Files.createTempDirectory("crm-benchmark-index"),
+                        "--logging.level.root=WARN");
+        interactionRepository = context.getBean(InteractionRepository.class);
+        customerService = context.getBean(CustomerService.class);
+        adminService = context.getBean(AdminService.class);
+
+        seed(context.getBean(JdbcTemplate.class), context.getBean(IdSequenceRepository.class));
+        context.getBean(AnalyticsRollupService.class).reconcile();
+
+        Page<InteractionView> deepPage = interactionRepository.findViewsByStatus("PENDING",
+                PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "date", "id")));
+        List<InteractionView> rows = deepPage.getContent();
+        deepCursorRow = rows.get(rows.size() - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<InteractionView> customerInteractionsFirstPage() {
+        return interactionRepository.findViewsByCustomer(hotCustomerId, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "date")));
+    }
+
+    @Benchmark
+    public Slice<InteractionView> customerInteractionsFirstSlice() {
+        return interactionRepository.findFirstSliceByCustomer(hotCustomerId, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<InteractionView> pendingInteractionsDeepOffset() {
+        return interactionRepository.findViewsByStatus("PENDING",
+                PageRequest.of(DEEP_PAGE, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "date", "id")));
+    }
+
+    @Benchmark
+    public Slice<InteractionView> pendingInteractionsDeepKeyset() {
+        return interactionRepository.findSliceByStatusAfter("PENDING", deepCursorRow.getDate(), deepCursorRow.getId(),
+                PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> customerInteractionsByType() {
+        return interactionRepository.countInteractionsByType(hotCustomerId);
+    }
+
+    @Benchmark
+    public Map<String, Object> customerAnalyticsCached() {
+        return customerService.getCustomerAnalytics(hotCustomerId);
+    }
+
+    @Benchmark
+    public Map<String, Object> adminAnalytics() {
+        return adminService.getAdminAnalytics();
+    }
+
+    private void seed(JdbcTemplate jdbc, IdSequenceRepository idSequences) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        long userId = idSequences.reserve(IdGenerators.USERS, CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            users.add(new Object[]{userId + i, "customer" + i, "customer" + i + "@example.com", "x", "ROLE_CUSTOMER",
+                    i % 4 == 0 ? "PENDING" : "ACTIVE", Timestamp.valueOf(now.minusDays(i))});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, username, email, password, role, status, join_date) VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+
+        List<Long> customerIds = jdbc.queryForList("SELECT id FROM users WHERE role = 'ROLE_CUSTOMER' ORDER BY id", Long.class);
+        hotCustomerId = customerIds.get(0);
+
+        String[] types = {"call", "email", "meeting"};
+        String[] statuses = {"PENDING", "COMPLETED", "SCHEDULED"};
+        List<Object[]> interactions = new ArrayList<>();
+        int total = (customerIds.size() - 1) * INTERACTIONS_PER_CUSTOMER + HOT_CUSTOMER_INTERACTIONS;
+        long interactionId = idSequences.reserve(IdGenerators.INTERACTION, total);
+        int n = 0;
+        for (Long customerId : customerIds) {
+            int count = customerId == hotCustomerId ? HOT_CUSTOMER_INTERACTIONS : INTERACTIONS_PER_CUSTOMER;
+            for (int i = 0; i < count; i++, n++) {
+                interactions.add(new Object[]{interactionId + n, customerId, types[n % 3], "Interaction " + n, Timestamp.valueOf(now.minusMinutes(n)),
+                        statuses[n % 3], "Notes for interaction " + n});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO interaction (id, customer_id, type, subject, date, status, notes) VALUES (?, ?, ?, ?, ?, ?, ?)", interactions);
+    }
+}
@@ -0,0 +1,123 @@
+package com.crm.benchmark;
+
+import com.crm.config.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request throughput of the two execution modes for the app's typical request shape: a short
+ * JDBC call on a pooled connection followed by a longer blocking wait (SMTP hand-off, slow client).
+ * "platform" mirrors Tomcat's default 200-thread pool; "virtual" runs one virtual thread per request
+ * with connections rationed by ConnectionLimitingDataSource. The virtual mode needs a Java 21 JVM
+ * (build with -Pbenchmark,java21); on older JVMs its trial fails and the platform numbers still run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int REQUESTS = 2_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    public String threadMode;
+
+    // Time a request holds its connection
+    @Param({"1"})
+    public int dbMillis;
+
+    // Time a request blocks outside the database
+    @Param({"20"})
+    public int ioMillis;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private Executor executor;
+    private ExecutorService platformExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:threadmode;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(POOL_SIZE);
+        if ("virtual".equals(threadMode)) {
+            executor = new VirtualThreadTaskExecutor("request-");
+            dataSource = new ConnectionLimitingDataSource(pool, POOL_SIZE, TimeUnit.SECONDS.toMillis(30));
+        } else {
+            platformExecutor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+            executor = platformExecutor;
+            dataSource = pool;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdownNow();
+        }
+        pool.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int requests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.execute(() -> {
+                try {
+                    handle();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " requests failed");
+        }
+        return REQUESTS;
+    }
+
+    private void handle() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT 1")) {
+            rs.next();
+            Thread.sleep(dbMillis);
+        }
+        Thread.sleep(ioMillis);
+    }
+}
@@ -0,0 +1,99 @@
+package com.crm.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects per-endpoint latencies and errors while recording is on and summarizes them as
+ * throughput and p50/p99/p999. Every sample is kept, so percentiles are exact.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    public void start() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    public void stop() {
+        recording = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, key -> new Samples()).add(latencyNanos, success);
+        }
+    }
+
+    /**
+     * Summarizes the recorded window, one entry per endpoint in name order.
+     * @return Rows with requests, errors, throughput and latency percentiles in milliseconds.
+     */
+    public List<Map<String, Object>> summarize() {
+        double seconds = (stoppedAt - startedAt) / 1e9;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(endpoints).entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey());
+            row.put("requests", sorted.length);
+            row.put("errors", entry.getValue().errors());
+            row.put("throughputPerSecond", round(sorted.length / seconds));
+            row.put("p50Ms", percentileMillis(sorted, 0.50));
+            row.put("p99Ms", percentileMillis(sorted, 0.99));
+            row.put("p999Ms", percentileMillis(sorted, 0.999));
+            row.put("maxMs", sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1e6));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static double percentileMillis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.crm.loadtest;
+
+import com.crm.CrmApplication;
+import com.crm.repository.IdSequenceRepository;
+import com.crm.search.InteractionSearchIndex;
+import com.crm.service.AnalyticsRollupService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline load test: boots the application on an in-memory H2 database (MySQL mode) with a
+ * fake SMTP server, generates a skewed synthetic data set, then drives a weighted mix of
+ * customer and admin traffic over HTTP and reports throughput and p50/p99/p999 per endpoint.
+ *
+ * <p>Configured with system properties, see the loadtest profile in pom.xml:
+ * loadtest.customers, loadtest.interactions, loadtest.campaigns, loadtest.users,
+ * loadtest.warmup-seconds, loadtest.duration-seconds, loadtest.token-pool, loadtest.report.
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private final int customers = Integer.getInteger("loadtest.customers", 100_000);
+    private final int interactions = Integer.getInteger("loadtest.interactions", 1_000_000);
+    private final int campaigns = Integer.getInteger("loadtest.campaigns", 50_000);
+    private final int users = Integer.getInteger("loadtest.users", 32);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 15);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+    private final int tokenPool = Integer.getInteger("loadtest.token-pool", 200);
+    // Requires a Java 21 JVM; compare reports from runs with and without it
+    private final boolean virtualThreads = Boolean.getBoolean("loadtest.virtual-threads");
+    private final String reportFile = System.getProperty("loadtest.report", "target/loadtest-report.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private SyntheticDataGenerator generator;
+    private String baseUrl;
+    private String adminToken;
+    private final List<CustomerSession> sessions = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> pendingInteractionIds = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> pendingCampaignIds = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> pendingCustomerIds = new ConcurrentLinkedQueue<>();
+
+    // Weighted traffic mix; weights are relative
+    private final List<Action> mix = List.of(
+            new Action("POST /api/auth/login", 5, this::login),
+            new Action("GET /api/customers/{id}/interactions", 20, this::listInteractions),
+            new Action("GET /api/customers/{id}/interactions/cursor", 10, this::listInteractionsByCursor),
+            new Action("GET /api/customers/{id}/interactions?search", 10, this::searchInteractions),
+            new Action("GET /api/customers/{id}/analytics", 15, this::customerAnalytics),
+            new Action("GET /api/customers/{id}/customer-campaigns", 5, this::customerCampaigns),
+            new Action("GET /api/admin/customers", 5, this::adminCustomers),
+            new Action("GET /api/admin/interactions/pending", 8, this::adminPendingInteractions),
+            new Action("GET /api/admin/customer-campaigns/pending", 4, this::adminPendingCampaigns),
+            new Action("GET /api/admin/analytics", 10, this::adminAnalytics),
+            new Action("PUT /api/admin/interactions/{id}/status", 5, this::approveInteraction),
+            new Action("PUT /api/admin/customer-campaigns/{id}/status", 3, this::approveCampaign),
+            new Action("PUT /api/admin/customers/{id}/approve", 2, this::approveCustomer));
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (FakeSmtpServer smtp = new FakeSmtpServer()) {
+            ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(CrmApplication.class).run(
+                    "--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.profiles.active=local-smtp",
+                    "--spring.mail.port=" + smtp.getPort(),
+                    "--search.index.dir=" + Files.createTempDirectory("crm-loadtest-index"),
+                    "--jwt.expiration=" + TimeUnit.HOURS.toMillis(12),
+                    "--spring.threads.virtual.enabled=" + virtualThreads,
+                    // Every virtual user signs in from 127.0.0.1
+                    "--security.login.max-attempts-per-address=0",
+                    "--logging.level.root=WARN");
+            try {
+                baseUrl = "http://localhost:" + context.getWebServer().getPort();
+                prepareData(context);
+                prepareSessions();
+
+                System.out.printf("Warming up for %ds with %d virtual users...%n", warmupSeconds, users);
+                drive(warmupSeconds);
+                System.out.printf("Measuring for %ds...%n", durationSeconds);
+                recorder.start();
+                drive(durationSeconds);
+                recorder.stop();
+
+                report(smtp.getMessageCount());
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private void prepareData(ServletWebServerApplicationContext context) throws InterruptedException {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        generator = new SyntheticDataGenerator(jdbc, context.getBean(IdSequenceRepository.class));
+        long started = System.nanoTime();
+        generator.generateCustomers(customers, new BCryptPasswordEncoder().encode(PASSWORD));
+        generator.generateInteractions(interactions);
+        generator.generateCampaigns(campaigns);
+        System.out.printf("Generated %d customers, %d interactions, %d campaigns in %ds%n",
+                customers, interactions, campaigns, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+
+        context.getBean(AnalyticsRollupService.class).reconcile();
+        InteractionSearchIndex searchIndex = context.getBean(InteractionSearchIndex.class);
+        searchIndex.rebuild();
+        while (!searchIndex.isReady()) {
+            Thread.sleep(500);
+        }
+
+        pendingInteractionIds.addAll(jdbc.queryForList("SELECT id FROM interaction WHERE status = 'PENDING' LIMIT 200000", Long.class));
+        pendingCampaignIds.addAll(jdbc.queryForList("SELECT id FROM customer_campaign WHERE status = 'PENDING' LIMIT 200000", Long.class));
+        pendingCustomerIds.addAll(jdbc.queryForList("SELECT id FROM users WHERE status = 'PENDING' LIMIT 200000", Long.class));
+    }
+
+    // Logs in a skewed sample of customers up front; customer endpoints only accept the owner's token
+    private void prepareSessions() throws Exception {
+        adminToken = loginToken("admin", "password", "admin");
+        SplittableRandom random = new SplittableRandom(7);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        List<Future<CustomerSession>> futures = new ArrayList<>();
+        for (int i = 0; i < tokenPool; i++) {
+            int index = generator.skewedCustomerIndex(random);
+            futures.add(pool.submit(() -> new CustomerSession(index, generator.customerId(index),
+                    loginToken(SyntheticDataGenerator.username(index), PASSWORD, "customer"))));
+        }
+        for (Future<CustomerSession> future : futures) {
+            CustomerSession session = future.get();
+            if (session.token != null) {
+                sessions.add(session);
+            }
+        }
+        pool.shutdown();
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No customer could log in; check the generated data.");
+        }
+    }
+
+    private void drive(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        int totalWeight = mix.stream().mapToInt(Action::weight).sum();
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        for (int u = 0; u < users; u++) {
+            SplittableRandom random = new SplittableRandom(1000L + u);
+            pool.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    Action action = pick(random, totalWeight);
+                    long start = System.nanoTime();
+                    Boolean ok;
+                    try {
+                        ok = action.call.execute(random);
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    if (ok != null) {
+                        recorder.record(action.name, System.nanoTime() - start, ok);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    private Action pick(SplittableRandom random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Action action : mix) {
+            roll -= action.weight;
+            if (roll < 0) {
+                return action;
+            }
+        }
+        return mix.get(0);
+    }
+
+    private void report(long emailsDelivered) throws Exception {
+        List<Map<String, Object>> rows = recorder.summarize();
+        System.out.printf("%n%-50s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("%-50s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", row.get("endpoint"), row.get("requests"), row.get("errors"),
+                    row.get("throughputPerSecond"), row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+        }
+        System.out.printf("Emails accepted by the fake SMTP server: %d%n", emailsDelivered);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("customers", customers);
+        report.put("interactions", interactions);
+        report.put("campaigns", campaigns);
+        report.put("virtualUsers", users);
+        report.put("durationSeconds", durationSeconds);
+        report.put("virtualThreads", virtualThreads);
+        report.put("emailsDelivered", emailsDelivered);
+        report.put("endpoints", rows);
+        File file = new File(reportFile);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+
+    // ---- Scripted requests ----
+
+    private Boolean login(SplittableRandom random) throws Exception {
+        int index = generator.skewedCustomerIndex(random);
+        return loginToken(SyntheticDataGenerator.username(index), PASSWORD, "customer") != null;
+    }
+
+    private Boolean listInteractions(SplittableRandom random) throws Exception {
+        CustomerSession session = session(random);
+        return get("/api/customers/" + session.id + "/interactions?page=" + random.nextInt(3) + "&size=20&sort=date,desc", session.token);
+    }
+
+    private Boolean listInteractionsByCursor(SplittableRandom random) throws Exception {
+        CustomerSession session = session(random);
+        return get("/api/customers/" + session.id + "/interactions/cursor?size=20", session.token);
+    }
+
+    private Boolean searchInteractions(SplittableRandom random) throws Exception {
+        CustomerSession session = session(random);
+        String[] terms = {"pricing", "renewal", "invoice", "demo", "migration", "supp"};
+        return get("/api/customers/" + session.id + "/interactions?search=" + terms[random.nextInt(terms.length)] + "&size=20", session.token);
+    }
+
+    private Boolean customerAnalytics(SplittableRandom random) throws Exception {
+        CustomerSession session = session(random);
+        return get("/api/customers/" + session.id + "/analytics", session.token);
+    }
+
+    private Boolean customerCampaigns(SplittableRandom random) throws Exception {
+        CustomerSession session = session(random);
+        return get("/api/customers/" + session.id + "/customer-campaigns", session.token);
+    }
+
+    private Boolean adminCustomers(SplittableRandom random) throws Exception {
+        return get("/api/admin/customers?page=" + random.nextInt(50) + "&size=20", adminToken);
+    }
+
+    private Boolean adminPendingInteractions(SplittableRandom random) throws Exception {
+        return get("/api/admin/interactions/pending?page=" + random.nextInt(5) + "&size=20", adminToken);
+    }
+
+    private Boolean adminPendingCampaigns(SplittableRandom random) throws Exception {
+        return get("/api/admin/customer-campaigns/pending", adminToken);
+    }
+
+    private Boolean adminAnalytics(SplittableRandom random) throws Exception {
+        return get("/api/admin/analytics", adminToken);
+    }
+
+    private Boolean approveInteraction(SplittableRandom random) throws Exception {
+        Long id = pendingInteractionIds.poll();
+        return id == null ? null : put("/api/admin/interactions/" + id + "/status", "{\"status\":\"COMPLETED\"}", adminToken);
+    }
+
+    private Boolean approveCampaign(SplittableRandom random) throws Exception {
+        Long id = pendingCampaignIds.poll();
+        return id == null ? null : put("/api/admin/customer-campaigns/" + id + "/status", "{\"status\":\"APPROVED\"}", adminToken);
+    }
+
+    // Sends the approval email through the outbox to the fake SMTP server
+    private Boolean approveCustomer(SplittableRandom random) throws Exception {
+        Long id = pendingCustomerIds.poll();
+        return id == null ? null : put("/api/admin/customers/" + id + "/approve", "{}", adminToken);
+    }
+
+    // ---- HTTP helpers ----
+
+    private CustomerSession session(SplittableRandom random) {
+        return sessions.get(random.nextInt(sessions.size()));
+    }
+
+    private String loginToken(String username, String password, String role) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password, "role", role));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        JsonNode token = objectMapper.readTree(response.body()).get("token");
+        return token == null ? null : token.asText();
+    }
+
+    private boolean get(String path, String token) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), token);
+    }
+
+    private boolean put(String path, String json, String token) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json)), token);
+    }
+
+    private boolean send(HttpRequest.Builder request, String token) throws Exception {
+        HttpResponse<byte[]> response = http.send(request.header("Authorization", "Bearer " + token).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        return response.statusCode() < 400;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        // null means the call was skipped (e.g. nothing left to approve) and is not recorded
+        Boolean execute(SplittableRandom random) throws Exception;
+    }
+
+    private record Action(String name, int weight, Call call) {
+    }
+
+    private record CustomerSession(int index, long id, String token) {
+    }
+}
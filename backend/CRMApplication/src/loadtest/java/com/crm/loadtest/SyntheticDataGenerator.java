@@ -0,0 +1,143 @@
+package com.crm.loadtest;
+
+import com.crm.model.IdGenerators;
+import com.crm.repository.IdSequenceRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database with synthetic customers, interactions and campaign proposals through
+ * batched JDBC inserts, with ids claimed from the application's id generators. Activity is skewed: a small head of customers owns most interactions
+ * and campaigns, the way real CRM data is.
+ */
+public class SyntheticDataGenerator {
+
+    private static final int BATCH = 10_000;
+    private static final String[] TYPES = {"call", "call", "call", "call", "call", "email", "email", "email", "meeting", "meeting"};
+    private static final String[] WORDS = {"pricing", "renewal", "onboarding", "invoice", "upgrade", "support", "contract",
+            "demo", "integration", "billing", "feedback", "migration", "training", "discount", "escalation", "roadmap"};
+
+    // Higher exponent = more skew towards the first customers
+    private static final double SKEW = 3.0;
+
+    private final JdbcTemplate jdbc;
+    private final IdSequenceRepository idSequences;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private long firstCustomerId;
+    private int customers;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbc, IdSequenceRepository idSequences) {
+        this.jdbc = jdbc;
+        this.idSequences = idSequences;
+    }
+
+    /**
+     * Inserts customers sharing one password hash, so logins still pay the real BCrypt cost.
+     * @param count Number of customers.
+     * @param passwordHash BCrypt hash of the shared password.
+     */
+    public void generateCustomers(int count, String passwordHash) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        long firstId = idSequences.reserve(IdGenerators.USERS, count);
+        for (int i = 0; i < count; i++) {
+            String status = random.nextInt(10) == 0 ? "PENDING" : "ACTIVE";
+            Timestamp joined = Timestamp.valueOf(now.minusMinutes(random.nextLong(3L * 365 * 24 * 60)));
+            batch.add(new Object[]{firstId + i, username(i), username(i) + "@example.com", passwordHash, "ROLE_CUSTOMER", status, joined});
+            if (batch.size() == BATCH) {
+                insertCustomers(batch);
+            }
+        }
+        insertCustomers(batch);
+        firstCustomerId = firstId;
+        customers = count;
+    }
+
+    public void generateInteractions(int count) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        long firstId = idSequences.reserve(IdGenerators.INTERACTION, count);
+        for (int i = 0; i < count; i++) {
+            int statusRoll = random.nextInt(10);
+            String status = statusRoll == 0 ? "PENDING" : statusRoll < 3 ? "SCHEDULED" : "COMPLETED";
+            String topic = WORDS[random.nextInt(WORDS.length)];
+            batch.add(new Object[]{
+                    firstId + i,
+                    skewedCustomerId(),
+                    TYPES[random.nextInt(TYPES.length)],
+                    capitalize(topic) + " follow-up " + i,
+                    Timestamp.valueOf(now.minusMinutes(random.nextLong(365L * 24 * 60))),
+                    status,
+                    "Discussed " + topic + " and " + WORDS[random.nextInt(WORDS.length)] + " with the customer."});
+            if (batch.size() == BATCH) {
+                insert("INSERT INTO interaction (id, customer_id, type, subject, date, status, notes) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+            }
+        }
+        insert("INSERT INTO interaction (id, customer_id, type, subject, date, status, notes) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    public void generateCampaigns(int count) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        long firstId = idSequences.reserve(IdGenerators.CUSTOMER_CAMPAIGN, count);
+        for (int i = 0; i < count; i++) {
+            int statusRoll = random.nextInt(10);
+            String status = statusRoll < 2 ? "PENDING" : statusRoll < 8 ? "APPROVED" : "REJECTED";
+            LocalDateTime submitted = now.minusMinutes(random.nextLong(365L * 24 * 60));
+            Timestamp reviewed = "PENDING".equals(status) ? null : Timestamp.valueOf(submitted.plusHours(random.nextInt(72)));
+            batch.add(new Object[]{
+                    firstId + i,
+                    skewedCustomerId(),
+                    capitalize(WORDS[random.nextInt(WORDS.length)]) + " campaign " + i,
+                    "Proposal to run a " + WORDS[random.nextInt(WORDS.length)] + " campaign for our segment.",
+                    status,
+                    Timestamp.valueOf(submitted),
+                    reviewed});
+            if (batch.size() == BATCH) {
+                insert("INSERT INTO customer_campaign (id, customer_id, title, description, status, submitted_at, reviewed_at) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+            }
+        }
+        insert("INSERT INTO customer_campaign (id, customer_id, title, description, status, submitted_at, reviewed_at) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    /**
+     * Picks a customer index with the same skew the data was generated with, so the traffic
+     * mix hits the heavy customers as often as real users would.
+     * @param random Source of randomness for the calling thread.
+     * @return A customer index in [0, customers).
+     */
+    public int skewedCustomerIndex(SplittableRandom random) {
+        return (int) (customers * Math.pow(random.nextDouble(), SKEW));
+    }
+
+    public long customerId(int index) {
+        return firstCustomerId + index;
+    }
+
+    public static String username(int index) {
+        return "customer" + index;
+    }
+
+    private long skewedCustomerId() {
+        return customerId(skewedCustomerIndex(random));
+    }
+
+    private void insertCustomers(List<Object[]> batch) {
+        insert("INSERT INTO users (id, username, email, password, role, status, join_date) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private void insert(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
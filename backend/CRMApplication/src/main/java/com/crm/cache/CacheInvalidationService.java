@@ -0,0 +1,167 @@
+package com.crm.cache;
+
+import com.crm.model.CacheInvalidation;
+import com.crm.repository.CacheInvalidationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the second-level cache coherent across nodes without a message broker. Committed
+ * inserts, updates and deletes of cached entities mark their region dirty; every poll this node
+ * bumps the dirty regions' versions in cache_invalidations and evicts every region whose version
+ * moved since the last poll, along with the cached query results. Cross-node staleness is thus
+ * bounded by cache.l2.invalidation.poll-interval-ms.
+ *
+ * JPQL bulk updates are invisible to entity events; callers report them through {@link #markDirty(String)}.
+ */
+@Component
+public class CacheInvalidationService {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private CacheInvalidationRepository cacheInvalidationRepository;
+
+    private final Set<String> dirtyRegions = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> seenVersions = new HashMap<>();
+    private volatile boolean ready;
+
+    @PostConstruct
+    void registerListeners() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        CommitListener listener = new CommitListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedRegions() {
+        for (String region : CacheRegions.ENTITY_REGIONS) {
+            if (!cacheInvalidationRepository.existsById(region)) {
+                try {
+                    cacheInvalidationRepository.save(new CacheInvalidation(region));
+                } catch (DataIntegrityViolationException e) {
+                    // Another node seeded it first
+                }
+            }
+        }
+        cacheInvalidationRepository.findAll().forEach(row -> seenVersions.put(row.getRegion(), row.getVersion()));
+        ready = true;
+    }
+
+    /**
+     * Records that a region changed outside of entity events, e.g. through a JPQL bulk update.
+     * Inside a transaction the mark waits for the commit, so other nodes never reload the old rows
+     * from a bump that ran before the change was visible.
+     * @param region One of {@link CacheRegions#ENTITY_REGIONS}.
+     */
+    public void markDirty(String region) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirtyRegions.add(region);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dirtyRegions.add(region);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cache.l2.invalidation.poll-interval-ms:2000}")
+    public synchronized void sync() {
+        if (!ready) {
+            return;
+        }
+        if (!dirtyRegions.isEmpty()) {
+            List<String> regions = new ArrayList<>(dirtyRegions);
+            dirtyRegions.removeAll(regions);
+            cacheInvalidationRepository.bump(regions);
+        }
+
+        List<String> changed = new ArrayList<>();
+        for (CacheInvalidation row : cacheInvalidationRepository.findAll()) {
+            Long seen = seenVersions.put(row.getRegion(), row.getVersion());
+            if (seen != null && seen != row.getVersion()) {
+                changed.add(row.getRegion());
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        // Our own bumps land here too; evicting a region this node already has fresh costs only a reload
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        changed.forEach(cache::evictRegion);
+        // Query results only track this node's writes through the timestamps region, so drop them all
+        cache.evictDefaultQueryRegion();
+    }
+
+    private final class CommitListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            mark(event.getPersister());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            mark(event.getPersister());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            mark(event.getPersister());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.canWriteToCache();
+        }
+
+        private void mark(EntityPersister persister) {
+            EntityDataAccess access = persister.getCacheAccessStrategy();
+            if (access != null) {
+                dirtyRegions.add(access.getRegion().getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.crm.cache;
+
+import java.util.List;
+
+/**
+ * Names of the Hibernate second-level cache regions. Each one is created up front with its own
+ * size and TTL by HibernateCacheConfig and kept coherent across nodes by CacheInvalidationService.
+ */
+public final class CacheRegions {
+
+    public static final String USERS = "users";
+    public static final String CAMPAIGNS = "campaigns";
+    public static final String SETTINGS = "settings";
+
+    public static final List<String> ENTITY_REGIONS = List.of(USERS, CAMPAIGNS, SETTINGS);
+
+    // Hibernate's own regions for cached query results and per-table update timestamps
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,160 @@
+package com.crm.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Background execution: enables scheduled jobs and defines the worker pools they use.
+ * In virtual-thread mode (spring.threads.virtual.enabled=true on Java 21) the pools keep their
+ * sizes and queues as concurrency limits but run each task on a virtual thread; Boot then also
+ * moves Tomcat and the @Scheduled jobs onto virtual threads.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${email.worker.pool-size:4}")
+    private int emailPoolSize;
+
+    @Value("${email.worker.queue-capacity:200}")
+    private int emailQueueCapacity;
+
+    @Value("${campaign.dispatch.max-concurrent:2}")
+    private int maxConcurrentCampaigns;
+
+    @Value("${campaign.dispatch.transport-pool-size:4}")
+    private int campaignTransportPoolSize;
+
+    @Value("${security.password.hash.pool-size:0}")
+    private int passwordHashPoolSize;
+
+    @Value("${security.password.hash.queue-capacity:64}")
+    private int passwordHashQueueCapacity;
+
+    @Value("${notifications.stream.push-pool-size:4}")
+    private int notificationPushPoolSize;
+
+    @Value("${notifications.broadcast.max-concurrent:1}")
+    private int maxConcurrentBroadcasts;
+
+    @Value("${customers.import.max-concurrent:1}")
+    private int maxConcurrentCustomerImports;
+
+    @Value("${customers.import.hash-pool-size:0}")
+    private int customerImportHashPoolSize;
+
+    @Bean(name = "emailExecutor")
+    public ThreadPoolTaskExecutor emailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(emailPoolSize);
+        executor.setMaxPoolSize(emailPoolSize);
+        executor.setQueueCapacity(emailQueueCapacity);
+        executor.setThreadNamePrefix("email-");
+        useVirtualThreadsIfEnabled(executor, "email-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Runs the per-campaign dispatch loops
+    @Bean(name = "campaignExecutor")
+    public ThreadPoolTaskExecutor campaignExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentCampaigns);
+        executor.setMaxPoolSize(maxConcurrentCampaigns);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("campaign-");
+        useVirtualThreadsIfEnabled(executor, "campaign-");
+        return executor;
+    }
+
+    // One sender thread per pooled SMTP transport
+    @Bean(name = "campaignSendExecutor")
+    public ThreadPoolTaskExecutor campaignSendExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(campaignTransportPoolSize);
+        executor.setMaxPoolSize(campaignTransportPoolSize);
+        executor.setThreadNamePrefix("campaign-send-");
+        useVirtualThreadsIfEnabled(executor, "campaign-send-");
+        return executor;
+    }
+
+    // CPU-bound BCrypt work; kept on platform threads and below the core count so hashing can't starve requests
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int poolSize = passwordHashPoolSize > 0
+                ? passwordHashPoolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(passwordHashQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+
+    // Runs bulk customer import jobs, one batch loop per job
+    @Bean(name = "customerImportExecutor")
+    public ThreadPoolTaskExecutor customerImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentCustomerImports);
+        executor.setMaxPoolSize(maxConcurrentCustomerImports);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("customer-import-");
+        useVirtualThreadsIfEnabled(executor, "customer-import-");
+        return executor;
+    }
+
+    // BCrypt for imported passwords; separate from passwordHashExecutor so an import never makes logins shed load
+    @Bean(name = "customerImportHashExecutor")
+    public ThreadPoolTaskExecutor customerImportHashExecutor() {
+        int poolSize = customerImportHashPoolSize > 0
+                ? customerImportHashPoolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("customer-import-hash-");
+        return executor;
+    }
+
+    // Writes to notification streams, so a stalled client socket holds up neither the committing request nor the scheduler
+    @Bean(name = "notificationPushExecutor")
+    public ThreadPoolTaskExecutor notificationPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationPushPoolSize);
+        executor.setMaxPoolSize(notificationPushPoolSize);
+        executor.setQueueCapacity(100000);
+        executor.setThreadNamePrefix("notification-push-");
+        useVirtualThreadsIfEnabled(executor, "notification-push-");
+        return executor;
+    }
+
+    // Runs fan-out broadcast jobs, one chunk loop per broadcast
+    @Bean(name = "notificationBroadcastExecutor")
+    public ThreadPoolTaskExecutor notificationBroadcastExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentBroadcasts);
+        executor.setMaxPoolSize(maxConcurrentBroadcasts);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("notification-broadcast-");
+        useVirtualThreadsIfEnabled(executor, "notification-broadcast-");
+        return executor;
+    }
+
+    private void useVirtualThreadsIfEnabled(ThreadPoolTaskExecutor executor, String prefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory());
+        }
+    }
+}
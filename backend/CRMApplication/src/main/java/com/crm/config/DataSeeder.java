@@ -8,6 +8,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import com.crm.cache.CacheInvalidationService;
+import com.crm.cache.CacheRegions;
 import com.crm.model.Role;
 import com.crm.model.User;
 import com.crm.model.User.UserStatus;
@@ -26,6 +28,11 @@ public class DataSeeder implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    private static final LocalDateTime UNKNOWN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Override
     public void run(String... args) throws Exception {
         
@@ -47,6 +54,17 @@ public class DataSeeder implements CommandLineRunner {
             System.out.println("Admin account already exists.");
         }
 
+        // Listings page on (joinDate, id) and (date, id); rows saved before those columns were required
+        // get the epoch, which keeps them last in the newest-first order MySQL gave their NULLs
+        int users = userRepository.backfillJoinDates(UNKNOWN_DATE);
+        int interactions = interactionRepository.backfillDates(UNKNOWN_DATE);
+        if (users > 0) {
+            cacheInvalidationService.markDirty(CacheRegions.USERS);
+        }
+        if (users + interactions > 0) {
+            System.out.println("Backfilled missing dates: " + users + " users, " + interactions + " interactions.");
+        }
+
         
             
         
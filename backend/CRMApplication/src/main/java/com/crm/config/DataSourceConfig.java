@@ -0,0 +1,68 @@
+package com.crm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Puts a {@link ConnectionLimitingDataSource} in front of the Hikari pool. It is switched on
+ * automatically in virtual-thread mode (spring.threads.virtual.enabled=true on Java 21) and can be
+ * forced with db.connection-limit.enabled.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                boolean enabled = environment.getProperty("db.connection-limit.enabled", Boolean.class,
+                        Threading.VIRTUAL.isActive(environment));
+                if (!enabled) {
+                    return bean;
+                }
+                // Default to the pool size: anything beyond it would only wait inside Hikari instead.
+                // Hikari reports -1 until its own default (10) is applied when the pool starts.
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : -1;
+                int defaultPermits = poolSize > 0 ? poolSize : 10;
+                int permits = environment.getProperty("db.connection-limit.permits", Integer.class, defaultPermits);
+                long timeoutMs = environment.getProperty("db.connection-limit.acquire-timeout-ms", Long.class, 30000L);
+                return new ConnectionLimitingDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+
+    // Exposes db.connection-limit.available / .waiting when the limiter is active
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            ConnectionLimitingDataSource limiter;
+            try {
+                if (!dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+                    return;
+                }
+                limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            Gauge.builder("db.connection-limit.available", limiter, ConnectionLimitingDataSource::availablePermits)
+                    .description("Connection permits currently free")
+                    .register(registry);
+            Gauge.builder("db.connection-limit.waiting", limiter, ConnectionLimitingDataSource::queueLength)
+                    .description("Callers parked waiting for a connection permit")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.crm.config;
+
+import com.crm.cache.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backs the Hibernate second-level and query cache with in-process Caffeine caches (via JCache).
+ * Every region is created here with a size bound and a TTL; Hibernate is told to fail on any
+ * region it would otherwise create unbounded. The TTL is the backstop for cross-node staleness,
+ * normally closed much sooner by CacheInvalidationService.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Value("${cache.l2.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${cache.l2.users.ttl-seconds:300}")
+    private long usersTtlSeconds;
+
+    @Value("${cache.l2.campaigns.max-size:1000}")
+    private long campaignsMaxSize;
+
+    @Value("${cache.l2.campaigns.ttl-seconds:300}")
+    private long campaignsTtlSeconds;
+
+    @Value("${cache.l2.settings.ttl-seconds:600}")
+    private long settingsTtlSeconds;
+
+    @Value("${cache.l2.query.max-size:10000}")
+    private long queryMaxSize;
+
+    @Value("${cache.l2.query.ttl-seconds:300}")
+    private long queryTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        createRegion(cacheManager, CacheRegions.USERS, usersMaxSize, usersTtlSeconds);
+        createRegion(cacheManager, CacheRegions.CAMPAIGNS, campaignsMaxSize, campaignsTtlSeconds);
+        createRegion(cacheManager, CacheRegions.SETTINGS, 10, settingsTtlSeconds);
+        createRegion(cacheManager, CacheRegions.QUERY_RESULTS, queryMaxSize, queryTtlSeconds);
+        // One entry per table; must outlive every cached query result, so it never expires
+        createRegion(cacheManager, CacheRegions.UPDATE_TIMESTAMPS, 1000, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, long ttlSeconds) {
+        if (cacheManager.getCache(name) != null) {
+            cacheManager.destroyCache(name);
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
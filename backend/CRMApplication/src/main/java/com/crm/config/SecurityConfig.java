@@ -1,15 +1,30 @@
 package com.crm.config;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -17,7 +32,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.crm.security.BCryptCostCalibrator;
+import com.crm.security.BoundedPasswordEncoder;
 import com.crm.security.JwtAuthenticationFilter;
+import com.crm.security.TimedPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
@@ -26,13 +46,72 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthFilter;
 
+    @Value("${security.password.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${security.password.bcrypt.target-ms:100}")
+    private long bcryptTargetMs;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.password.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    @Value("${security.password.hash.retry-after-seconds:2}")
+    private long hashRetryAfterSeconds;
+
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    // Empty disables the scrape account; admins can still read the endpoint with their JWT
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+
+    /**
+     * The Prometheus scrape answers to HTTP Basic with the scrape account, since a scraper cannot log in
+     * for a JWT. It is kept off the open endpoints because its tags and series reveal traffic and internals.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusScrapeFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.to(PrometheusScrapeEndpoint.class))
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyAuthority("ROLE_METRICS", "ROLE_ADMIN"))
+            // Sets the status directly: sendError would dispatch to /error, which the main chain answers with 403
+            .httpBasic(basic -> basic.authenticationEntryPoint((request, response, e) -> {
+                response.setHeader("WWW-Authenticate", "Basic realm=\"metrics\"");
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            }))
+            .authenticationManager(this::authenticateScraper)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        return http.build();
+    }
+
+    private Authentication authenticateScraper(Authentication authentication) {
+        byte[] given = String.valueOf(authentication.getCredentials()).getBytes(StandardCharsets.UTF_8);
+        if (scrapePassword.isEmpty() || !scrapeUsername.equals(authentication.getName())
+                || !MessageDigest.isEqual(scrapePassword.getBytes(StandardCharsets.UTF_8), given)) {
+            throw new BadCredentialsException("Invalid scrape credentials.");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(scrapeUsername, null,
+                AuthorityUtils.createAuthorityList("ROLE_METRICS"));
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
+                // Completion of async responses (e.g. a notification stream timing out); the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                // Health stays open for probes; other actuator endpoints are admin-only
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/customers/**").hasAuthority("ROLE_CUSTOMER")
                 .anyRequest().authenticated()
@@ -56,8 +135,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor) {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : BCryptCostCalibrator.calibrate(bcryptTargetMs, bcryptMinStrength, bcryptMaxStrength);
+        System.out.println("Using BCrypt cost " + strength + " for password hashing.");
+        // Existing hashes keep verifying at their own cost; only new hashes use the chosen one
+        PasswordEncoder timed = new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry);
+        return new BoundedPasswordEncoder(timed, passwordHashExecutor, hashRetryAfterSeconds);
     }
 
     @Bean
@@ -1,22 +1,50 @@
 package com.crm.controller;
 
-import com.crm.model.CustomerCampaign;
+import com.crm.dto.CursorPage;
+import com.crm.dto.CustomerCampaignView;
+import com.crm.dto.InteractionImportResult;
+import com.crm.dto.InteractionImportSummary;
+import com.crm.dto.InteractionView;
+import com.crm.export.ExportFormat;
+import com.crm.model.CustomerImportJob;
 import com.crm.model.EmailCampaign;
-import com.crm.model.Interaction;
+import com.crm.model.EmailOutboxMessage;
+import com.crm.model.NotificationBroadcast;
 import com.crm.model.Settings;
 import com.crm.model.User;
 import com.crm.service.AdminService;
+import com.crm.service.CustomerImportService;
+import com.crm.service.ExportService;
+import com.crm.service.InteractionImportService;
+import com.crm.service.NotificationBroadcastService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -25,6 +53,21 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private InteractionImportService interactionImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    @Autowired
+    private NotificationBroadcastService notificationBroadcastService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/")
     public String home() {
         return "Welcome to the Admin Dashboard API";
@@ -37,12 +80,59 @@ public class AdminController {
         return ResponseEntity.ok(customers);
     }
 
+    @GetMapping("/customers/cursor")
+    public ResponseEntity<CursorPage<User>> getAllCustomersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.getAllCustomers(cursor, size));
+    }
+
     @PostMapping("/customers")
     public ResponseEntity<User> addCustomer(@RequestBody User customer) {
         User newCustomer = adminService.addCustomer(customer);
         return new ResponseEntity<>(newCustomer, HttpStatus.CREATED);
     }
 
+    /**
+     * Bulk customer import. The body is CSV with a header row, or NDJSON / a JSON array; it is
+     * saved and imported in the background. Poll the returned job for progress and fetch the
+     * per-record errors from /customers/import/{id}/errors once it has finished.
+     */
+    @PostMapping(value = "/customers/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importCustomers(@RequestParam(required = false) String fileName,
+                                             HttpServletRequest request) throws IOException {
+        ExportFormat format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ExportFormat.CSV
+                : ExportFormat.NDJSON;
+        CustomerImportJob job;
+        try {
+            job = customerImportService.submit(format, fileName, request.getInputStream());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/admin/customers/import/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/customers/import/{id}")
+    public ResponseEntity<CustomerImportJob> getCustomerImport(@PathVariable Long id) {
+        return ResponseEntity.ok(customerImportService.getJob(id));
+    }
+
+    @GetMapping("/customers/import/{id}/errors")
+    public void getCustomerImportErrors(@PathVariable Long id, @RequestParam(defaultValue = "csv") String format,
+                                        HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        customerImportService.getJob(id);
+        try (OutputStream out = openExport(response, "customer-import-" + id + "-errors", exportFormat, false)) {
+            customerImportService.writeErrorReport(id, exportFormat, out);
+        }
+    }
+
     @PutMapping("/customers/{id}")
     public ResponseEntity<User> updateCustomer(@PathVariable Long id, @RequestBody User customerDetails) {
         User updatedCustomer = adminService.updateCustomer(id, customerDetails);
@@ -76,29 +166,118 @@ public class AdminController {
     
     // == Interaction Approval Endpoints ==
     @GetMapping("/interactions/pending")
-    public ResponseEntity<Page<Interaction>> getPendingInteractions(Pageable pageable) {
-        Page<Interaction> pendingInteractions = adminService.getPendingInteractions(pageable);
+    public ResponseEntity<Page<InteractionView>> getPendingInteractions(Pageable pageable) {
+        Page<InteractionView> pendingInteractions = adminService.getPendingInteractions(pageable);
         return ResponseEntity.ok(pendingInteractions);
     }
 
+    @GetMapping("/interactions/pending/cursor")
+    public ResponseEntity<CursorPage<InteractionView>> getPendingInteractionsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.getPendingInteractions(cursor, size));
+    }
+
     @PutMapping("/interactions/{id}/status")
-    public ResponseEntity<Interaction> updateInteractionStatus(
+    public ResponseEntity<InteractionView> updateInteractionStatus(
             @PathVariable Long id,
             @RequestBody Map<String, String> statusUpdate) {
         String status = statusUpdate.get("status");
         if (status == null || (!status.equalsIgnoreCase("COMPLETED") && !status.equalsIgnoreCase("SCHEDULED"))) {
             return ResponseEntity.badRequest().build();
         }
-        Interaction updatedInteraction = adminService.updateInteractionStatus(id, status.toUpperCase());
+        InteractionView updatedInteraction = adminService.updateInteractionStatus(id, status.toUpperCase());
         return ResponseEntity.ok(updatedInteraction);
     }
 
+    /**
+     * Bulk import for integrations. The body is NDJSON or a JSON array of records; the response is
+     * NDJSON with one result per record, written as each batch commits, then a summary line. The
+     * status is 200 as soon as results start flowing, so clients must read the summary for errors.
+     */
+    @PostMapping(value = "/interactions/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importInteractions(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        InteractionImportSummary summary = interactionImportService.importInteractions(request.getInputStream(), results -> {
+            try {
+                for (InteractionImportResult result : results) {
+                    writer.write(objectMapper.writeValueAsString(result));
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.write(objectMapper.writeValueAsString(Map.of("summary", summary)));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    // == Export Endpoints ==
+    // Streamed as the rows are read, so a failure mid-export truncates the file rather than changing the status
+    @GetMapping("/export/customers")
+    public void exportCustomers(@RequestParam(defaultValue = "csv") String format,
+                                @RequestParam(defaultValue = "false") boolean gzip,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        try (OutputStream out = openExport(response, "customers", exportFormat, gzip)) {
+            exportService.exportCustomers(exportFormat, out);
+        }
+    }
+
+    // from and to are inclusive days
+    @GetMapping("/export/interactions")
+    public void exportInteractions(@RequestParam(defaultValue = "csv") String format,
+                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                   @RequestParam(required = false) Long customerId,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+        try (OutputStream out = openExport(response, "interactions", exportFormat, gzip)) {
+            exportService.exportInteractions(exportFormat, customerId, fromTime, toTime, out);
+        }
+    }
+
+    private OutputStream openExport(HttpServletResponse response, String name, ExportFormat format, boolean gzip)
+            throws IOException {
+        String fileName = name + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (!gzip) {
+            response.setContentType(format.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            return response.getOutputStream();
+        }
+        response.setContentType("application/gzip");
+        return new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+    }
+
     // == Analytics Endpoint ==
     @GetMapping("/analytics")
     public ResponseEntity<Map<String, Object>> getAnalytics() {
         return ResponseEntity.ok(adminService.getAdminAnalytics());
     }
 
+    @GetMapping("/analytics/customer-cache")
+    public ResponseEntity<Map<String, Object>> getCustomerAnalyticsCacheStats() {
+        return ResponseEntity.ok(adminService.getCustomerAnalyticsCacheStats());
+    }
+
     // == Marketing Email Campaign Endpoints ==
     @GetMapping("/campaigns")
     public ResponseEntity<Page<EmailCampaign>> getAllCampaigns(Pageable pageable) {
@@ -113,33 +292,80 @@ public class AdminController {
     }
 
     @PutMapping("/campaigns/{id}")
-    public ResponseEntity<EmailCampaign> updateCampaign(@PathVariable Long id, @RequestBody EmailCampaign campaignDetails) {
-        EmailCampaign updatedCampaign = adminService.updateCampaign(id, campaignDetails);
+    public ResponseEntity<?> updateCampaign(@PathVariable Long id, @RequestBody EmailCampaign campaignDetails) {
+        EmailCampaign updatedCampaign;
+        try {
+            updatedCampaign = adminService.updateCampaign(id, campaignDetails);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
         return ResponseEntity.ok(updatedCampaign);
     }
 
+    @PostMapping("/campaigns/{id}/send")
+    public ResponseEntity<EmailCampaign> sendCampaign(@PathVariable Long id) {
+        EmailCampaign campaign = adminService.sendCampaign(id);
+        return new ResponseEntity<>(campaign, HttpStatus.ACCEPTED);
+    }
+
     @DeleteMapping("/campaigns/{id}")
     public ResponseEntity<Void> deleteCampaign(@PathVariable Long id) {
         adminService.deleteCampaign(id);
         return ResponseEntity.noContent().build();
     }
 
+    // == Email Outbox Endpoints ==
+    @GetMapping("/email-outbox")
+    public ResponseEntity<Page<EmailOutboxMessage>> getOutboxMessages(@RequestParam(required = false) String status, Pageable pageable) {
+        return ResponseEntity.ok(adminService.getOutboxMessages(status, pageable));
+    }
+
+    @PutMapping("/email-outbox/{id}/retry")
+    public ResponseEntity<EmailOutboxMessage> retryOutboxMessage(@PathVariable Long id) {
+        return ResponseEntity.ok(adminService.retryOutboxMessage(id));
+    }
+
+    // == Notification Broadcast Endpoints ==
+    /**
+     * Announces a message to every active customer. mode is FANOUT (default), a notification per
+     * customer written in the background, or SHARED, one broadcast row that customers read in place.
+     * Progress is at the returned Location.
+     */
+    @PostMapping("/notifications/broadcasts")
+    public ResponseEntity<NotificationBroadcast> broadcastNotification(@RequestBody Map<String, String> request) {
+        String message = request.get("message");
+        String mode = request.getOrDefault("mode", NotificationBroadcast.Mode.FANOUT.name());
+        // The message is copied into notifications.message when fanned out
+        if (message == null || message.isBlank() || message.length() > 255 || mode == null
+                || (!mode.equalsIgnoreCase("FANOUT") && !mode.equalsIgnoreCase("SHARED"))) {
+            return ResponseEntity.badRequest().build();
+        }
+        NotificationBroadcast broadcast = notificationBroadcastService.broadcast(message,
+                NotificationBroadcast.Mode.valueOf(mode.toUpperCase()));
+        return ResponseEntity.accepted().location(URI.create("/api/admin/notifications/broadcasts/" + broadcast.getId())).body(broadcast);
+    }
+
+    @GetMapping("/notifications/broadcasts/{id}")
+    public ResponseEntity<NotificationBroadcast> getNotificationBroadcast(@PathVariable Long id) {
+        return ResponseEntity.ok(notificationBroadcastService.getBroadcast(id));
+    }
+
     // == Customer-Submitted Campaign Approval Endpoints ==
     @GetMapping("/customer-campaigns/pending")
-    public ResponseEntity<List<CustomerCampaign>> getPendingCampaigns() {
-        List<CustomerCampaign> pendingCampaigns = adminService.getPendingCampaigns();
+    public ResponseEntity<List<CustomerCampaignView>> getPendingCampaigns() {
+        List<CustomerCampaignView> pendingCampaigns = adminService.getPendingCampaigns();
         return ResponseEntity.ok(pendingCampaigns);
     }
 
     @PutMapping("/customer-campaigns/{id}/status")
-    public ResponseEntity<CustomerCampaign> updateCustomerCampaignStatus(
+    public ResponseEntity<CustomerCampaignView> updateCustomerCampaignStatus(
             @PathVariable Long id,
             @RequestBody Map<String, String> statusUpdate) {
         String status = statusUpdate.get("status");
         if (status == null || (!status.equalsIgnoreCase("APPROVED") && !status.equalsIgnoreCase("REJECTED"))) {
             return ResponseEntity.badRequest().build();
         }
-        CustomerCampaign updatedCampaign = adminService.updateCustomerCampaignStatus(id, status.toUpperCase());
+        CustomerCampaignView updatedCampaign = adminService.updateCustomerCampaignStatus(id, status.toUpperCase());
         return ResponseEntity.ok(updatedCampaign);
     }
 
@@ -2,9 +2,11 @@ package com.crm.controller;
 
 import com.crm.dto.AuthRequest;
 import com.crm.dto.AuthResponse;
+import com.crm.dto.RefreshRequest;
 import com.crm.dto.UserDto;
 import com.crm.model.User;
 import com.crm.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,7 +25,18 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest) {
-        return ResponseEntity.ok(authService.login(authRequest));
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest, HttpServletRequest request) {
+        return ResponseEntity.ok(authService.login(authRequest, request.getRemoteAddr()));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest refreshRequest) {
+        return ResponseEntity.ok(authService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody RefreshRequest refreshRequest) {
+        authService.logout(refreshRequest.getRefreshToken());
+        return ResponseEntity.ok("Logged out successfully");
+    }
+}
@@ -1,19 +1,28 @@
 package com.crm.controller;
 
+import com.crm.dto.CursorPage;
+import com.crm.dto.CustomerCampaignView;
+import com.crm.dto.InteractionView;
+import com.crm.dto.NotificationView;
 import com.crm.model.CustomerCampaign;
 import com.crm.model.EmailCampaign;
 import com.crm.model.Interaction;
 import com.crm.model.User;
+import com.crm.notification.NotificationHub;
+import com.crm.security.JwtPrincipal;
 import com.crm.service.CustomerService;
+import com.crm.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -26,9 +35,17 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
     private void checkAccess(Long requestedId, UserDetails userDetails) {
-        User currentUser = customerService.findUserByUsername(userDetails.getUsername());
-        if (!Objects.equals(currentUser.getId(), requestedId)) {
+        Long currentUserId = userDetails instanceof JwtPrincipal principal
+                ? principal.getId()
+                : customerService.findUserByUsername(userDetails.getUsername()).getId();
+        if (!Objects.equals(currentUserId, requestedId)) {
             throw new AccessDeniedException("You are not authorized to access this resource.");
         }
     }
@@ -59,6 +76,71 @@ public class CustomerController {
         return ResponseEntity.ok(Map.of("message", "Password changed successfully."));
     }
 
+    // == Notification Endpoints ==
+    @GetMapping("/{id}/notifications")
+    public ResponseEntity<CursorPage<NotificationView>> getNotifications(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean unread,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        checkAccess(id, userDetails);
+        return ResponseEntity.ok(notificationService.getNotifications(id, unread, cursor, size));
+    }
+
+    // Polled for the navbar badge on every page load; a primary-key read of the maintained counter
+    // plus the latest shared broadcast sequence, read from the end of its index
+    @GetMapping("/{id}/notifications/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        checkAccess(id, userDetails);
+        return ResponseEntity.ok(Map.of("unread", notificationService.countUnread(id)));
+    }
+
+    @PutMapping("/{id}/notifications/read")
+    public ResponseEntity<Map<String, Long>> markNotificationsRead(@PathVariable Long id, @RequestBody List<Long> ids, @AuthenticationPrincipal UserDetails userDetails) {
+        checkAccess(id, userDetails);
+        int updated = notificationService.markRead(id, ids);
+        return ResponseEntity.ok(Map.of("updated", (long) updated, "unread", notificationService.countUnread(id)));
+    }
+
+    @PutMapping("/{id}/notifications/read-all")
+    public ResponseEntity<Map<String, Long>> markAllNotificationsRead(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        checkAccess(id, userDetails);
+        int updated = notificationService.markAllRead(id);
+        return ResponseEntity.ok(Map.of("updated", (long) updated, "unread", notificationService.countUnread(id)));
+    }
+
+    // Shared broadcasts, i.e. announcements stored once for everyone rather than per customer
+    @GetMapping("/{id}/broadcasts")
+    public ResponseEntity<CursorPage<NotificationView>> getBroadcasts(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        checkAccess(id, userDetails);
+        return ResponseEntity.ok(notificationService.getBroadcasts(id, cursor, size));
+    }
+
+    @PutMapping("/{id}/broadcasts/read")
+    public ResponseEntity<Map<String, Long>> markBroadcastsRead(@PathVariable Long id, @RequestParam(required = false) Long upTo,
+                                                                @AuthenticationPrincipal UserDetails userDetails) {
+        checkAccess(id, userDetails);
+        notificationService.markBroadcastsRead(id, upTo);
+        return ResponseEntity.ok(Map.of("unread", notificationService.countUnread(id)));
+    }
+
+    // == Notification Stream ==
+    // Server-Sent Events; browsers resend the last event id as Last-Event-ID when they reconnect
+    @GetMapping(value = "/{id}/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@PathVariable Long id,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                          @AuthenticationPrincipal UserDetails userDetails) {
+        checkAccess(id, userDetails);
+        return notificationHub.subscribe(id, lastEventId);
+    }
+
     // == Analytics Endpoint ==
     @GetMapping("/{id}/analytics")
     public ResponseEntity<Map<String, Object>> getCustomerAnalytics(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
@@ -69,7 +151,7 @@ public class CustomerController {
 
     // == Interactions Endpoints ==
     @GetMapping("/{id}/interactions")
-    public ResponseEntity<Page<Interaction>> getCustomerInteractions(
+    public ResponseEntity<Page<InteractionView>> getCustomerInteractions(
             @PathVariable Long id,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String search,
@@ -77,18 +159,30 @@ public class CustomerController {
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         checkAccess(id, userDetails);
-        Page<Interaction> interactions = customerService.getInteractionsForCustomer(id, type, search, pageable);
+        Page<InteractionView> interactions = customerService.getInteractionsForCustomer(id, type, search, pageable);
         return ResponseEntity.ok(interactions);
     }
 
+    @GetMapping("/{id}/interactions/cursor")
+    public ResponseEntity<CursorPage<InteractionView>> getCustomerInteractionsByCursor(
+            @PathVariable Long id,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        checkAccess(id, userDetails);
+        return ResponseEntity.ok(customerService.getInteractionsForCustomer(id, type, cursor, size));
+    }
+
     @PostMapping("/{id}/interactions")
-    public ResponseEntity<Interaction> addInteraction(
+    public ResponseEntity<InteractionView> addInteraction(
             @PathVariable Long id,
             @RequestBody Interaction interaction,
             @AuthenticationPrincipal UserDetails userDetails) {
         
         checkAccess(id, userDetails);
-        Interaction newInteraction = customerService.addInteraction(id, interaction);
+        InteractionView newInteraction = customerService.addInteraction(id, interaction);
         return new ResponseEntity<>(newInteraction, HttpStatus.CREATED);
     }
 
@@ -102,16 +196,16 @@ public class CustomerController {
 
     // == Customer-Submitted Campaign Endpoints ==
     @PostMapping("/{id}/campaigns")
-    public ResponseEntity<CustomerCampaign> submitCampaign(@PathVariable Long id, @RequestBody CustomerCampaign campaign, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<CustomerCampaignView> submitCampaign(@PathVariable Long id, @RequestBody CustomerCampaign campaign, @AuthenticationPrincipal UserDetails userDetails) {
         checkAccess(id, userDetails);
-        CustomerCampaign submittedCampaign = customerService.submitCampaign(id, campaign);
+        CustomerCampaignView submittedCampaign = customerService.submitCampaign(id, campaign);
         return new ResponseEntity<>(submittedCampaign, HttpStatus.CREATED);
     }
 
     @GetMapping("/{id}/customer-campaigns")
-    public ResponseEntity<List<CustomerCampaign>> getSubmittedCampaigns(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<CustomerCampaignView>> getSubmittedCampaigns(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
         checkAccess(id, userDetails);
-        List<CustomerCampaign> campaigns = customerService.getSubmittedCampaigns(id);
+        List<CustomerCampaignView> campaigns = customerService.getSubmittedCampaigns(id);
         return ResponseEntity.ok(campaigns);
     }
 }
\ No newline at end of file
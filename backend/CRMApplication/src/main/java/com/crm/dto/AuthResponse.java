@@ -3,10 +3,12 @@ package com.crm.dto;
 public class AuthResponse {
     private String token;
     private Long userId;
+    private String refreshToken;
 
-    public AuthResponse(String token, Long userId) {
+    public AuthResponse(String token, Long userId, String refreshToken) {
         this.token = token;
         this.userId = userId;
+        this.refreshToken = refreshToken;
     }
 
     // Getters and Setters
@@ -14,4 +16,6 @@ public class AuthResponse {
     public void setToken(String token) { this.token = token; }
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
-}
\ No newline at end of file
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
@@ -0,0 +1,9 @@
+package com.crm.dto;
+
+/**
+ * Projection of a customer's campaign submission counts.
+ */
+public interface CampaignCounts {
+    long getSubmitted();
+    Long getApproved();
+}
@@ -0,0 +1,10 @@
+package com.crm.dto;
+
+/**
+ * Projection of the user columns a campaign email needs.
+ */
+public interface CampaignRecipient {
+    Long getId();
+    String getUsername();
+    String getEmail();
+}
@@ -0,0 +1,51 @@
+package com.crm.dto;
+
+import com.crm.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a (timestamp, id) ordered listing. Clients only ever see the opaque
+ * encoded form returned as {@code nextCursor}. The timestamp columns paged this way are
+ * NOT NULL, since a row with a null sort key would never match a keyset predicate.
+ */
+public class Cursor {
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public Cursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = Objects.requireNonNull(timestamp, "Cursor timestamp");
+        this.id = id;
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     * @param encoded The opaque cursor, may be null or empty for the first page.
+     * @return The cursor, or null for the first page.
+     * @throws InvalidCursorException If the cursor cannot be decoded.
+     */
+    public static Cursor decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.crm.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back to get the next page;
+ * it is null on the last page. No total count is computed.
+ */
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from a slice, deriving the next cursor from its last row.
+     * @param slice Rows fetched without a count query.
+     * @param cursorOf Extracts the (timestamp, id) position of a row.
+     * @return The page.
+     */
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, Cursor> cursorOf) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? cursorOf.apply(content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    /**
+     * Keeps a client-requested page size within 1..MAX_SIZE.
+     * @param size Requested size.
+     * @return The size to fetch.
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return nextCursor != null; }
+}
@@ -0,0 +1,44 @@
+package com.crm.dto;
+
+import com.crm.model.CustomerCampaign;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a customer's campaign proposal, selected by constructor-expression queries
+ * together with the submitting customer's name.
+ */
+public class CustomerCampaignView {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String status;
+    private final LocalDateTime submittedAt;
+    private final LocalDateTime reviewedAt;
+    private final CustomerSummary customer;
+
+    public CustomerCampaignView(Long id, String title, String description, String status, LocalDateTime submittedAt,
+                                LocalDateTime reviewedAt, Long customerId, String customerUsername) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.reviewedAt = reviewedAt;
+        this.customer = new CustomerSummary(customerId, customerUsername);
+    }
+
+    public static CustomerCampaignView from(CustomerCampaign campaign) {
+        return new CustomerCampaignView(campaign.getId(), campaign.getTitle(), campaign.getDescription(), campaign.getStatus(),
+                campaign.getSubmittedAt(), campaign.getReviewedAt(), campaign.getCustomer().getId(), campaign.getCustomer().getUsername());
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getStatus() { return status; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public LocalDateTime getReviewedAt() { return reviewedAt; }
+    public CustomerSummary getCustomer() { return customer; }
+}
@@ -0,0 +1,18 @@
+package com.crm.dto;
+
+/**
+ * The part of a customer shown next to their interactions and campaigns.
+ */
+public class CustomerSummary {
+
+    private final Long id;
+    private final String username;
+
+    public CustomerSummary(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+}
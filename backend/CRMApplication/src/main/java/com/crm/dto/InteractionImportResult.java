@@ -0,0 +1,48 @@
+package com.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one record of a bulk interaction import, streamed back as one NDJSON line.
+ * {@code index} is the record's zero-based position in the request body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InteractionImportResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    private final long index;
+    private final Status status;
+    private final Long id;
+    private final String error;
+
+    private InteractionImportResult(long index, Status status, Long id, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static InteractionImportResult created(long index, Long id) {
+        return new InteractionImportResult(index, Status.CREATED, id, null);
+    }
+
+    /** The record itself was invalid; sending it again unchanged will not help. */
+    public static InteractionImportResult rejected(long index, String error) {
+        return new InteractionImportResult(index, Status.REJECTED, null, error);
+    }
+
+    /** The record was valid but its batch could not be written; it can be retried. */
+    public static InteractionImportResult failed(long index, String error) {
+        return new InteractionImportResult(index, Status.FAILED, null, error);
+    }
+
+    public long getIndex() { return index; }
+    public Status getStatus() { return status; }
+    public Long getId() { return id; }
+    public String getError() { return error; }
+}
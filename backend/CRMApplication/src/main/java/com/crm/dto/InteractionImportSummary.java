@@ -0,0 +1,35 @@
+package com.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Totals for a bulk interaction import, sent as the last NDJSON line. {@code error} is set when
+ * the body could not be read to the end (malformed JSON or too many records); records reported
+ * before it stay committed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InteractionImportSummary {
+
+    private long received;
+    private long created;
+    private long rejected;
+    private long failed;
+    private String error;
+
+    public void add(InteractionImportResult result) {
+        switch (result.getStatus()) {
+            case CREATED -> created++;
+            case REJECTED -> rejected++;
+            case FAILED -> failed++;
+        }
+    }
+
+    public void setReceived(long received) { this.received = received; }
+    public void setError(String error) { this.error = error; }
+
+    public long getReceived() { return received; }
+    public long getCreated() { return created; }
+    public long getRejected() { return rejected; }
+    public long getFailed() { return failed; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,15 @@
+package com.crm.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the interaction columns that go into the full-text index.
+ */
+public interface InteractionIndexRow {
+    Long getId();
+    Long getCustomerId();
+    String getType();
+    String getSubject();
+    String getNotes();
+    LocalDateTime getUpdatedAt();
+}
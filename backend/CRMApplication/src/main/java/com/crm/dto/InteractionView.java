@@ -0,0 +1,44 @@
+package com.crm.dto;
+
+import com.crm.model.Interaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an interaction for list and approval screens. Built directly by
+ * constructor-expression queries, so only these columns and the customer's name are selected.
+ */
+public class InteractionView {
+
+    private final Long id;
+    private final String type;
+    private final String subject;
+    private final LocalDateTime date;
+    private final String status;
+    private final String notes;
+    private final CustomerSummary customer;
+
+    public InteractionView(Long id, String type, String subject, LocalDateTime date, String status, String notes,
+                           Long customerId, String customerUsername) {
+        this.id = id;
+        this.type = type;
+        this.subject = subject;
+        this.date = date;
+        this.status = status;
+        this.notes = notes;
+        this.customer = new CustomerSummary(customerId, customerUsername);
+    }
+
+    public static InteractionView from(Interaction interaction) {
+        return new InteractionView(interaction.getId(), interaction.getType(), interaction.getSubject(), interaction.getDate(),
+                interaction.getStatus(), interaction.getNotes(), interaction.getCustomer().getId(), interaction.getCustomer().getUsername());
+    }
+
+    public Long getId() { return id; }
+    public String getType() { return type; }
+    public String getSubject() { return subject; }
+    public LocalDateTime getDate() { return date; }
+    public String getStatus() { return status; }
+    public String getNotes() { return notes; }
+    public CustomerSummary getCustomer() { return customer; }
+}
@@ -0,0 +1,33 @@
+package com.crm.dto;
+
+import com.crm.model.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification as sent to its recipient, without the owning user.
+ */
+public class NotificationView {
+
+    private final Long id;
+    private final String message;
+    private final boolean read;
+    private final LocalDateTime createdAt;
+
+    public NotificationView(Long id, String message, boolean read, LocalDateTime createdAt) {
+        this.id = id;
+        this.message = message;
+        this.read = read;
+        this.createdAt = createdAt;
+    }
+
+    public static NotificationView from(Notification notification) {
+        return new NotificationView(notification.getId(), notification.getMessage(), notification.isRead(),
+                notification.getCreatedAt());
+    }
+
+    public Long getId() { return id; }
+    public String getMessage() { return message; }
+    public boolean isRead() { return read; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
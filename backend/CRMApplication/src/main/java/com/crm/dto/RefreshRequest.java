@@ -0,0 +1,9 @@
+package com.crm.dto;
+
+public class RefreshRequest {
+    private String refreshToken;
+
+    // Getters and Setters
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
@@ -0,0 +1,12 @@
+package com.crm.exception;
+
+/**
+ * Thrown when a client sends a page cursor that was not produced by the server.
+ * Mapped to 400.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
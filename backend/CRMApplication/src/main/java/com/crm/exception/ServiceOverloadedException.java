@@ -0,0 +1,19 @@
+package com.crm.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request is shed instead of queued.
+ * Mapped to 503 with a Retry-After header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
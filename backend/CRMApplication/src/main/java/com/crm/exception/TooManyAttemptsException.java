@@ -0,0 +1,19 @@
+package com.crm.exception;
+
+/**
+ * Thrown when a username or client address has exceeded its login attempt budget.
+ * Mapped to 429 with a Retry-After header.
+ */
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,63 @@
+package com.crm.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with a header row. Text that a spreadsheet would evaluate as a formula is
+ * prefixed with an apostrophe, since exported notes and subjects are user-supplied.
+ */
+class CsvRowWriter<T> extends RowWriter<T> {
+
+    CsvRowWriter(List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+        super(columns, out);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                this.out.write(',');
+            }
+            writeField(columns.get(i).getName());
+        }
+        this.out.write("\r\n");
+    }
+
+    @Override
+    public void write(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = columns.get(i).valueOf(row);
+            if (value instanceof String text) {
+                writeField(text);
+            } else if (value != null) {
+                out.write(value.toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String text) throws IOException {
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
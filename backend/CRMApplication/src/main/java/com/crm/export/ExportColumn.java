@@ -0,0 +1,23 @@
+package com.crm.export;
+
+import java.util.function.Function;
+
+/**
+ * One exported field: the CSV header / JSON key and how to read it from a row.
+ */
+public final class ExportColumn<T> {
+
+    private final String name;
+    private final Function<T, ?> getter;
+
+    public ExportColumn(String name, Function<T, ?> getter) {
+        this.name = name;
+        this.getter = getter;
+    }
+
+    public String getName() { return name; }
+
+    public Object valueOf(T row) {
+        return getter.apply(row);
+    }
+}
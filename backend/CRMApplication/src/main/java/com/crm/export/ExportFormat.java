@@ -0,0 +1,36 @@
+package com.crm.export;
+
+import java.util.Locale;
+
+/**
+ * Row formats for exports, bulk import uploads and import error reports.
+ */
+public enum ExportFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+
+    /**
+     * @param value Format name from a request parameter, any case.
+     * @return The format, or null if the name is unknown.
+     */
+    public static ExportFormat parse(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
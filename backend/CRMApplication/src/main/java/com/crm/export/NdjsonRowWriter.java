@@ -0,0 +1,41 @@
+package com.crm.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One JSON object per line, keyed by column name. Values go through the application's
+ * ObjectMapper, so dates look the same as in the REST API.
+ */
+class NdjsonRowWriter<T> extends RowWriter<T> {
+
+    private final JsonGenerator generator;
+
+    NdjsonRowWriter(List<ExportColumn<T>> columns, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        super(columns, out);
+        this.generator = objectMapper.getFactory().createGenerator(this.out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(T row) throws IOException {
+        generator.writeStartObject();
+        for (ExportColumn<T> column : columns) {
+            generator.writeFieldName(column.getName());
+            generator.writeObject(column.valueOf(row));
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+        super.finish();
+    }
+}
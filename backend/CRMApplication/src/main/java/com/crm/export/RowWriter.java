@@ -0,0 +1,44 @@
+package com.crm.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes rows one at a time to a buffered character stream. Nothing is kept per row, so memory
+ * use does not depend on how many rows are exported.
+ */
+public abstract class RowWriter<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final List<ExportColumn<T>> columns;
+    protected final Writer out;
+
+    protected RowWriter(List<ExportColumn<T>> columns, OutputStream out) {
+        this.columns = columns;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public static <T> RowWriter<T> create(ExportFormat format, List<ExportColumn<T>> columns, OutputStream out,
+                                          ObjectMapper objectMapper) throws IOException {
+        return format == ExportFormat.CSV
+                ? new CsvRowWriter<>(columns, out)
+                : new NdjsonRowWriter<>(columns, out, objectMapper);
+    }
+
+    public abstract void write(T row) throws IOException;
+
+    /**
+     * Flushes buffered rows. Does not close the underlying stream.
+     */
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,50 @@
+package com.crm.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SMTP send latency and failures, tagged by channel: "outbox" for transactional mail and
+ * "campaign" for bulk dispatch. Rate-limiter waits are not part of the recorded time.
+ */
+@Component
+public class EmailMetrics {
+
+    public static final String OUTBOX = "outbox";
+    public static final String CAMPAIGN = "campaign";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter deadLettered;
+
+    public EmailMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.deadLettered = Counter.builder("crm.email.dead")
+                .description("Outbox messages moved to DEAD after exhausting their attempts")
+                .register(meterRegistry);
+    }
+
+    public void recordSend(String channel, long startNanos, boolean success) {
+        Timer.builder("crm.email.send")
+                .description("Time spent handing one message to the SMTP server")
+                .tag("channel", channel)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            Counter.builder("crm.email.failures")
+                    .description("SMTP sends that raised an error")
+                    .tag("channel", channel)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    public void recordDeadLetter() {
+        deadLettered.increment();
+    }
+}
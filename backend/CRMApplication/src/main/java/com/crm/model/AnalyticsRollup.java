@@ -0,0 +1,84 @@
+package com.crm.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A precomputed counter, e.g. customers.status.ACTIVE (TOTAL) or interactions.created for one day.
+ * Maintained incrementally by AnalyticsRollupService and reconciled periodically from the source tables.
+ */
+@Entity
+@Table(name = "analytics_rollup")
+public class AnalyticsRollup {
+
+    public enum Granularity {
+        TOTAL,
+        DAY,
+        MONTH
+    }
+
+    // TOTAL counters are stored under this fixed period start
+    public static final LocalDate ALL_TIME = LocalDate.of(1970, 1, 1);
+
+    @EmbeddedId
+    private RollupKey id;
+
+    @Column(name = "metric_value", nullable = false)
+    private long value;
+
+    public AnalyticsRollup() {
+    }
+
+    public AnalyticsRollup(RollupKey id, long value) {
+        this.id = id;
+        this.value = value;
+    }
+
+    // Getters and Setters
+    public RollupKey getId() { return id; }
+    public void setId(RollupKey id) { this.id = id; }
+    public long getValue() { return value; }
+    public void setValue(long value) { this.value = value; }
+
+    @Embeddable
+    public static class RollupKey implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(length = 10)
+        private Granularity granularity;
+
+        private LocalDate periodStart;
+
+        @Column(length = 100)
+        private String metric;
+
+        public RollupKey() {
+        }
+
+        public RollupKey(Granularity granularity, LocalDate periodStart, String metric) {
+            this.granularity = granularity;
+            this.periodStart = periodStart;
+            this.metric = metric;
+        }
+
+        public Granularity getGranularity() { return granularity; }
+        public LocalDate getPeriodStart() { return periodStart; }
+        public String getMetric() { return metric; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey other)) return false;
+            return granularity == other.granularity
+                    && Objects.equals(periodStart, other.periodStart)
+                    && Objects.equals(metric, other.metric);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, periodStart, metric);
+        }
+    }
+}
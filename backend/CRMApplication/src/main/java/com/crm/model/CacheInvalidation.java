@@ -0,0 +1,37 @@
+package com.crm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Version counter for one second-level cache region. A node that commits a change to the region
+ * bumps the version; every node polls the table and evicts regions whose version moved.
+ */
+@Entity
+@Table(name = "cache_invalidations")
+public class CacheInvalidation {
+
+    @Id
+    @Column(length = 64)
+    private String region;
+
+    @Column(nullable = false)
+    private long version;
+
+    protected CacheInvalidation() {
+    }
+
+    public CacheInvalidation(String region) {
+        this.region = region;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
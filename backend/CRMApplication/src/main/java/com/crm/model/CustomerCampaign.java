@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 public class CustomerCampaign {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.CUSTOMER_CAMPAIGN)
+    @TableGenerator(name = IdGenerators.CUSTOMER_CAMPAIGN, table = IdGenerators.TABLE,
+            pkColumnValue = IdGenerators.CUSTOMER_CAMPAIGN, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
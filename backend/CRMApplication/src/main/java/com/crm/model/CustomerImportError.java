@@ -0,0 +1,62 @@
+package com.crm.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One line of a customer import's error report: a record that was rejected by validation or a
+ * uniqueness check, or that failed to save. Successfully imported records are only counted.
+ */
+@Entity
+@Table(name = "customer_import_errors", indexes = {
+        @Index(name = "idx_customer_import_errors_job_record", columnList = "jobId, recordIndex")
+})
+public class CustomerImportError {
+
+    public enum Kind {
+        REJECTED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.CUSTOMER_IMPORT_ERRORS)
+    @TableGenerator(name = IdGenerators.CUSTOMER_IMPORT_ERRORS, table = IdGenerators.TABLE,
+            pkColumnValue = IdGenerators.CUSTOMER_IMPORT_ERRORS, allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    // Zero-based position of the record in the uploaded file, not counting the CSV header
+    @Column(nullable = false)
+    private long recordIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    public CustomerImportError() {
+    }
+
+    public CustomerImportError(Long jobId, long recordIndex, Kind kind, String message) {
+        this.jobId = jobId;
+        this.recordIndex = recordIndex;
+        this.kind = kind;
+        this.message = message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    // --- Getters and Setters ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+    public long getRecordIndex() { return recordIndex; }
+    public void setRecordIndex(long recordIndex) { this.recordIndex = recordIndex; }
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
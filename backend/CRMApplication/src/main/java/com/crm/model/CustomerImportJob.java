@@ -0,0 +1,105 @@
+package com.crm.model;
+
+import com.crm.export.ExportFormat;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk customer import running in the background. The uploaded file is spooled to disk and
+ * processed in batches; after every batch the counters and recordsRead are checkpointed in the
+ * same transaction as the inserted customers, so a job that stops halfway resumes exactly where
+ * its last batch ended.
+ */
+@Entity
+@Table(name = "customer_import_jobs", indexes = {
+        @Index(name = "idx_customer_import_jobs_status_lease", columnList = "status, leaseUntil")
+})
+public class CustomerImportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExportFormat format;
+
+    private String fileName;
+
+    // Progress: records consumed from the file and the byte offset reached at the last checkpoint
+    private long totalBytes;
+    private long bytesRead;
+    private long recordsRead;
+
+    private long createdCount;
+    private long rejectedCount;
+    private long failedCount;
+
+    @Column(length = 1000)
+    private String error;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime leaseUntil;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public int getPercentComplete() {
+        if (status == Status.COMPLETED || totalBytes == 0) {
+            return status == Status.COMPLETED ? 100 : 0;
+        }
+        return (int) Math.min(99, bytesRead * 100 / totalBytes);
+    }
+
+    // --- Getters and Setters ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public ExportFormat getFormat() { return format; }
+    public void setFormat(ExportFormat format) { this.format = format; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public long getTotalBytes() { return totalBytes; }
+    public void setTotalBytes(long totalBytes) { this.totalBytes = totalBytes; }
+    public long getBytesRead() { return bytesRead; }
+    public void setBytesRead(long bytesRead) { this.bytesRead = bytesRead; }
+    public long getRecordsRead() { return recordsRead; }
+    public void setRecordsRead(long recordsRead) { this.recordsRead = recordsRead; }
+    public long getCreatedCount() { return createdCount; }
+    public void setCreatedCount(long createdCount) { this.createdCount = createdCount; }
+    public long getRejectedCount() { return rejectedCount; }
+    public void setRejectedCount(long rejectedCount) { this.rejectedCount = rejectedCount; }
+    public long getFailedCount() { return failedCount; }
+    public void setFailedCount(long failedCount) { this.failedCount = failedCount; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+}
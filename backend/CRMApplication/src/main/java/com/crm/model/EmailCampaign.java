@@ -1,23 +1,40 @@
 package com.crm.model;
 
+import com.crm.cache.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CAMPAIGNS)
 public class EmailCampaign {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.EMAIL_CAMPAIGN)
+    @TableGenerator(name = IdGenerators.EMAIL_CAMPAIGN, table = IdGenerators.TABLE,
+            pkColumnValue = IdGenerators.EMAIL_CAMPAIGN, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     
     private String name;
     private String subject;
-    private String status; // e.g., 'draft', 'sent', 'scheduled'
+    private String status; // e.g., 'draft', 'sending', 'sent', 'scheduled'
     private Integer recipients;
     private Integer openRate;
     private Integer clickRate;
     private LocalDateTime createdAt;
     private LocalDateTime sentAt;
+
+    // Message body; {{username}} and {{email}} are replaced per recipient
+    @Lob
+    private String body;
+
+    // Dispatch progress, checkpointed after every chunk so a crashed send can resume
+    private Integer sentCount;
+    private Integer failedCount;
+    private Long lastRecipientId;
+    private LocalDateTime dispatchLeaseUntil;
     
     // Getters and Setters
     public Long getId() { return id; }
@@ -38,4 +55,14 @@ public class EmailCampaign {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getSentAt() { return sentAt; }
     public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    public Integer getSentCount() { return sentCount; }
+    public void setSentCount(Integer sentCount) { this.sentCount = sentCount; }
+    public Integer getFailedCount() { return failedCount; }
+    public void setFailedCount(Integer failedCount) { this.failedCount = failedCount; }
+    public Long getLastRecipientId() { return lastRecipientId; }
+    public void setLastRecipientId(Long lastRecipientId) { this.lastRecipientId = lastRecipientId; }
+    public LocalDateTime getDispatchLeaseUntil() { return dispatchLeaseUntil; }
+    public void setDispatchLeaseUntil(LocalDateTime dispatchLeaseUntil) { this.dispatchLeaseUntil = dispatchLeaseUntil; }
 }
\ No newline at end of file
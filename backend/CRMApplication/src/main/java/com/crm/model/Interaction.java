@@ -4,10 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_interaction_customer_date", columnList = "customer_id, date, id"),
+        @Index(name = "idx_interaction_status_date", columnList = "status, date, id"),
+        @Index(name = "idx_interaction_updated", columnList = "updated_at, id")
+})
 public class Interaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.INTERACTION)
+    @TableGenerator(name = IdGenerators.INTERACTION, table = IdGenerators.TABLE,
+            pkColumnValue = IdGenerators.INTERACTION, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -16,12 +23,17 @@ public class Interaction {
     
     private String type; // e.g., 'call', 'email', 'meeting'
     private String subject;
+    // Sort key of the keyset-paged interaction lists, so never null
+    @Column(nullable = false)
     private LocalDateTime date;
     private String status; // e.g., 'completed', 'scheduled', 'pending'
     
     @Lob
     private String notes;
 
+    // Last write, polled by every node's search index to pick up changes made on the others
+    private LocalDateTime updatedAt;
+
     // **NEW**: Add this empty constructor for JPA
     public Interaction() {
     }
@@ -36,6 +48,12 @@ public class Interaction {
         this.notes = notes;
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -51,4 +69,5 @@ public class Interaction {
     public void setStatus(String status) { this.status = status; }
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
\ No newline at end of file
@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Unread listing and mark-all-as-read; the full listing uses the second index
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, isRead, createdAt, id"),
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, createdAt, id")
+})
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.NOTIFICATIONS)
+    @TableGenerator(name = IdGenerators.NOTIFICATIONS, table = IdGenerators.TABLE,
+            pkColumnValue = IdGenerators.NOTIFICATIONS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,6 +26,7 @@ public class Notification {
 
     private boolean isRead = false;
 
+    @Column(nullable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
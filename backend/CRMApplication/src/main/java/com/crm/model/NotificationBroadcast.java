@@ -0,0 +1,109 @@
+package com.crm.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An announcement to every active customer, stored in one of two ways:
+ * <ul>
+ *     <li>FANOUT: a background job writes one notification per customer, a chunk of customers per
+ *     transaction. Each chunk checkpoints lastUserId in the same transaction, so a job that stops
+ *     halfway resumes after the last customer it reached.</li>
+ *     <li>SHARED: this row is the only write. Customers who joined before it see it next to their
+ *     notifications, and a per-user watermark on {@link NotificationCounter} records how far they have read.
+ *     Shared broadcasts are numbered by {@code sequence} without gaps, so a customer's unread count is
+ *     the latest sequence minus their watermark, with no COUNT over the broadcasts.</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "notification_broadcasts", indexes = {
+        @Index(name = "idx_notification_broadcasts_mode_created", columnList = "mode, createdAt, id"),
+        @Index(name = "idx_notification_broadcasts_status_lease", columnList = "status, leaseUntil"),
+        @Index(name = "idx_notification_broadcasts_sequence", columnList = "sequence", unique = true)
+})
+public class NotificationBroadcast {
+
+    public enum Mode {
+        FANOUT,
+        SHARED
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Mode mode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Position among SHARED broadcasts, 1, 2, 3, ...; null for FANOUT jobs
+    private Long sequence;
+
+    // Progress of a FANOUT job: active customers when it was queued, and notifications written so far
+    private long recipientCount;
+    private long deliveredCount;
+    // Highest user id covered by a committed chunk
+    private long lastUserId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime leaseUntil;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED;
+    }
+
+    public int getPercentComplete() {
+        if (status == Status.COMPLETED || recipientCount == 0) {
+            return status == Status.COMPLETED ? 100 : 0;
+        }
+        return (int) Math.min(99, deliveredCount * 100 / recipientCount);
+    }
+
+    // --- Getters and Setters ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public Long getSequence() { return sequence; }
+    public void setSequence(Long sequence) { this.sequence = sequence; }
+    public long getRecipientCount() { return recipientCount; }
+    public void setRecipientCount(long recipientCount) { this.recipientCount = recipientCount; }
+    public long getDeliveredCount() { return deliveredCount; }
+    public void setDeliveredCount(long deliveredCount) { this.deliveredCount = deliveredCount; }
+    public long getLastUserId() { return lastUserId; }
+    public void setLastUserId(long lastUserId) { this.lastUserId = lastUserId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+}
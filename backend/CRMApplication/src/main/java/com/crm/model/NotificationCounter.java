@@ -0,0 +1,46 @@
+package com.crm.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Number of unread notifications of one user, kept in step with the notifications table by
+ * NotificationService in the same transaction as each insert or mark-as-read, so reading it is a
+ * primary-key lookup instead of a COUNT(*). The row also holds the user's position in the
+ * sequence of shared broadcasts, which are not counted here: the unread ones are those after
+ * both the read watermark and the last broadcast sent before the user joined.
+ */
+@Entity
+@Table(name = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long unread;
+
+    // Shared broadcasts with a sequence up to this one have been read
+    @Column(nullable = false)
+    private long broadcastsReadUpTo;
+
+    // Sequence of the last shared broadcast sent before the user joined; null until first looked up
+    private Long broadcastsFrom;
+
+    public NotificationCounter() {
+    }
+
+    public NotificationCounter(Long userId, long unread) {
+        this.userId = userId;
+        this.unread = unread;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public long getUnread() { return unread; }
+    public void setUnread(long unread) { this.unread = unread; }
+    public long getBroadcastsReadUpTo() { return broadcastsReadUpTo; }
+    public void setBroadcastsReadUpTo(long broadcastsReadUpTo) { this.broadcastsReadUpTo = broadcastsReadUpTo; }
+    public Long getBroadcastsFrom() { return broadcastsFrom; }
+    public void setBroadcastsFrom(Long broadcastsFrom) { this.broadcastsFrom = broadcastsFrom; }
+}
@@ -1,13 +1,19 @@
 package com.crm.model;
 
+import com.crm.cache.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.SETTINGS)
 @Table(name = "system_settings")
 public class Settings {
 
@@ -24,6 +30,9 @@ public class Settings {
     @Lob
     private String securitySettings;
 
+    // Bumped on every update; nodes compare it against their in-memory snapshot
+    private long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -56,4 +65,12 @@ public class Settings {
     public void setSecuritySettings(String securitySettings) {
         this.securitySettings = securitySettings;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
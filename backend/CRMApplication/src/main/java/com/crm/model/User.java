@@ -1,6 +1,9 @@
 package com.crm.model;
 
+import com.crm.cache.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,7 +13,11 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_join_date", columnList = "role, joinDate, id")
+})
 public class User implements UserDetails {
 
     public enum UserStatus {
@@ -20,7 +27,9 @@ public class User implements UserDetails {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.USERS)
+    @TableGenerator(name = IdGenerators.USERS, table = IdGenerators.TABLE,
+            pkColumnValue = IdGenerators.USERS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -45,6 +54,8 @@ public class User implements UserDetails {
     private String adharCard;
     private String address;
     private String phone;
+    // Sort key of the keyset-paged customer list, so never null
+    @Column(nullable = false)
     private LocalDateTime joinDate;
     
     // Admin specific fields
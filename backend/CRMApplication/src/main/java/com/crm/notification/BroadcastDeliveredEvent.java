@@ -0,0 +1,26 @@
+package com.crm.notification;
+
+import java.util.List;
+
+/**
+ * Published for each committed chunk of a fan-out broadcast. The chunk's notifications have ids in
+ * the block of userIds.size() ids from firstNotificationId, one per user that still existed.
+ */
+public class BroadcastDeliveredEvent {
+
+    private final List<Long> userIds;
+    private final long firstNotificationId;
+
+    public BroadcastDeliveredEvent(List<Long> userIds, long firstNotificationId) {
+        this.userIds = userIds;
+        this.firstNotificationId = firstNotificationId;
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public long getFirstNotificationId() {
+        return firstNotificationId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.crm.notification;
+
+import com.crm.dto.NotificationView;
+
+/**
+ * Published when a notification row is saved; listeners bound to the commit phase only see it
+ * once the row is visible to other transactions.
+ */
+public class NotificationCreatedEvent {
+
+    private final Long userId;
+    private final NotificationView notification;
+
+    public NotificationCreatedEvent(Long userId, NotificationView notification) {
+        this.userId = userId;
+        this.notification = notification;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public NotificationView getNotification() {
+        return notification;
+    }
+}
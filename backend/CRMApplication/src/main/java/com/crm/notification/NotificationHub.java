@@ -0,0 +1,213 @@
+package com.crm.notification;
+
+import com.crm.dto.NotificationView;
+import com.crm.service.NotificationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory registry of open notification streams on this node. Each stream is an async
+ * servlet response held by its SseEmitter, so idle connections cost a socket and a few objects
+ * but no thread. Notifications are pushed once the transaction that created them commits.
+ * A heartbeat comment goes out every notifications.stream.heartbeat-ms, and streams whose write
+ * fails are dropped. Writes run on notificationPushExecutor; a push that cannot be queued is
+ * dropped and the client gets it on its next reconnect. Clients reconnect with Last-Event-ID and
+ * get what they missed replayed.
+ *
+ * Pushes only reach streams held by the node that created the notification; a client connected
+ * elsewhere sees it on its next reconnect, at the latest after notifications.stream.timeout-ms.
+ * The same holds for broadcasts, which are pushed by the node that writes them.
+ */
+@Component
+public class NotificationHub {
+
+    @Autowired private NotificationService notificationService;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired @Qualifier("notificationPushExecutor") private ThreadPoolTaskExecutor pushExecutor;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+    @Value("${notifications.stream.reconnect-ms:5000}")
+    private long reconnectMs;
+    @Value("${notifications.stream.replay-limit:100}")
+    private int replayLimit;
+    @Value("${notifications.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("crm.notifications.streams", open, AtomicInteger::get)
+                .description("Notification streams currently open on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user.
+     * @param lastEventId The id of the last notification the client saw, or null for a fresh
+     *                    connection; newer notifications are replayed first.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // Locked until the replay is written, so pushes that race with it queue up behind it
+        synchronized (subscriber) {
+            add(subscriber);
+            if (!subscriber.send(SseEmitter.event().reconnectTime(reconnectMs).comment("connected"))) {
+                return emitter;
+            }
+            if (lastEventId != null) {
+                for (NotificationView missed : notificationService.findAfter(userId, lastEventId, replayLimit)) {
+                    if (!subscriber.push(missed)) {
+                        break;
+                    }
+                    subscriber.replayed.add(missed.getId());
+                }
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        List<Subscriber> streams = subscribers.get(event.getUserId());
+        if (streams == null) {
+            return;
+        }
+        submit(() -> streams.forEach(subscriber -> subscriber.push(event.getNotification())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBroadcastDelivered(BroadcastDeliveredEvent event) {
+        List<Long> connected = event.getUserIds().stream().filter(subscribers::containsKey).toList();
+        if (connected.isEmpty()) {
+            return;
+        }
+        submit(() -> notificationService.findBroadcastCopies(connected, event.getFirstNotificationId(), event.getUserIds().size())
+                .forEach((userId, copy) -> {
+                    List<Subscriber> streams = subscribers.get(userId);
+                    if (streams != null) {
+                        streams.forEach(subscriber -> subscriber.push(copy));
+                    }
+                }));
+    }
+
+    // Sent without an id: shared broadcasts are listed separately and are not part of the Last-Event-ID replay
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSharedBroadcastCreated(SharedBroadcastCreatedEvent event) {
+        for (List<Subscriber> streams : subscribers.values()) {
+            submit(() -> streams.forEach(subscriber -> subscriber.send(SseEmitter.event()
+                    .name("broadcast")
+                    .data(event.getBroadcast(), MediaType.APPLICATION_JSON))));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (List<Subscriber> streams : subscribers.values()) {
+            submit(() -> streams.forEach(subscriber -> subscriber.send(SseEmitter.event().comment("heartbeat"))));
+        }
+    }
+
+    private void submit(Runnable write) {
+        try {
+            pushExecutor.execute(write);
+        } catch (TaskRejectedException e) {
+            // Backlog full; heartbeats resume on the next round and pushes are replayed on reconnect
+        }
+    }
+
+    private void add(Subscriber subscriber) {
+        Subscriber[] evicted = new Subscriber[1];
+        subscribers.compute(subscriber.userId, (id, streams) -> {
+            List<Subscriber> list = streams != null ? streams : new CopyOnWriteArrayList<>();
+            list.add(subscriber);
+            if (list.size() > maxPerUser) {
+                evicted[0] = list.get(0);
+            }
+            return list;
+        });
+        open.incrementAndGet();
+        if (evicted[0] != null) {
+            // Oldest stream of the user gives way, e.g. a tab that was closed without disconnecting
+            evicted[0].close();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, streams) -> {
+            if (streams.remove(subscriber)) {
+                open.decrementAndGet();
+            }
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        // Ids sent by the replay, so a push of the same notification is not sent twice
+        private final Set<Long> replayed = new HashSet<>();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized boolean push(NotificationView notification) {
+            if (replayed.remove(notification.getId())) {
+                return true;
+            }
+            return send(SseEmitter.event()
+                    .id(String.valueOf(notification.getId()))
+                    .name("notification")
+                    .data(notification, MediaType.APPLICATION_JSON));
+        }
+
+        synchronized boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client gone or stream already completed
+                close();
+                return false;
+            }
+        }
+
+        void close() {
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.crm.notification;
+
+import com.crm.dto.NotificationView;
+
+/**
+ * Published when a shared broadcast is saved; it is meant for every customer stream.
+ */
+public class SharedBroadcastCreatedEvent {
+
+    private final NotificationView broadcast;
+
+    public SharedBroadcastCreatedEvent(NotificationView broadcast) {
+        this.broadcast = broadcast;
+    }
+
+    public NotificationView getBroadcast() {
+        return broadcast;
+    }
+}
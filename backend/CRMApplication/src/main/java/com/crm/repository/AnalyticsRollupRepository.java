@@ -0,0 +1,36 @@
+package com.crm.repository;
+
+import com.crm.model.AnalyticsRollup;
+import com.crm.model.AnalyticsRollup.Granularity;
+import com.crm.model.AnalyticsRollup.RollupKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsRollup, RollupKey> {
+
+    List<AnalyticsRollup> findByIdGranularity(Granularity granularity);
+
+    List<AnalyticsRollup> findByIdGranularityAndIdMetricOrderByIdPeriodStartAsc(Granularity granularity, String metric);
+
+    // Adds a delta to a counter, creating it if needed, without a read-modify-write round trip
+    @Modifying
+    @Query(value = "INSERT INTO analytics_rollup (granularity, period_start, metric, metric_value) " +
+                   "VALUES (:granularity, :periodStart, :metric, :delta) " +
+                   "ON DUPLICATE KEY UPDATE metric_value = metric_value + :delta", nativeQuery = true)
+    void increment(@Param("granularity") String granularity, @Param("periodStart") LocalDate periodStart,
+                   @Param("metric") String metric, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsRollup r WHERE r.id.metric IN :metrics")
+    void deleteByMetrics(@Param("metrics") Collection<String> metrics);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsRollup r WHERE r.id.metric LIKE :prefix%")
+    void deleteByMetricPrefix(@Param("prefix") String prefix);
+}
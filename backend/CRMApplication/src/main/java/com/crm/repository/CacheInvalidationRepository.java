@@ -0,0 +1,18 @@
+package com.crm.repository;
+
+import com.crm.model.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CacheInvalidation c SET c.version = c.version + 1 WHERE c.region IN :regions")
+    int bump(@Param("regions") Collection<String> regions);
+}
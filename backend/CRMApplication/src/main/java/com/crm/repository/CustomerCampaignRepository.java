@@ -1,5 +1,7 @@
 package com.crm.repository;
 
+import com.crm.dto.CampaignCounts;
+import com.crm.dto.CustomerCampaignView;
 import com.crm.model.CustomerCampaign;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -9,8 +11,37 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface CustomerCampaignRepository extends JpaRepository<CustomerCampaign, Long> {
-    List<CustomerCampaign> findByCustomerId(Long customerId);
-    List<CustomerCampaign> findByStatus(String status);
+    // Read-side listings select CustomerCampaignView directly, joining only the customer's id and name
+    String VIEW_SELECT = "SELECT new com.crm.dto.CustomerCampaignView(c.id, c.title, c.description, c.status, c.submittedAt, c.reviewedAt, u.id, u.username) " +
+                         "FROM CustomerCampaign c JOIN c.customer u ";
+
+    @Query(VIEW_SELECT + "WHERE u.id = :customerId")
+    List<CustomerCampaignView> findViewsByCustomerId(@Param("customerId") Long customerId);
+
+    @Query(VIEW_SELECT + "WHERE c.status = :status")
+    List<CustomerCampaignView> findViewsByStatus(@Param("status") String status);
+
+    // Submitted and approved counts for one customer in a single aggregate query
+    @Query("SELECT COUNT(c) AS submitted, SUM(CASE WHEN c.status = 'APPROVED' THEN 1 ELSE 0 END) AS approved " +
+           "FROM CustomerCampaign c WHERE c.customer.id = :customerId")
+    CampaignCounts countByCustomerId(@Param("customerId") Long customerId);
+
+    // Rollup reconciliation: campaign counts by status, submissions and approvals per day
+    @Query("SELECT c.status, COUNT(c) FROM CustomerCampaign c GROUP BY c.status")
+    List<Object[]> countAllByStatus();
+
+    @Query("SELECT FUNCTION('DATE', c.submittedAt), COUNT(c) FROM CustomerCampaign c WHERE c.submittedAt IS NOT NULL " +
+           "GROUP BY FUNCTION('DATE', c.submittedAt)")
+    List<Object[]> countSubmittedPerDay();
+
+    @Query("SELECT FUNCTION('DATE', c.reviewedAt), COUNT(c) FROM CustomerCampaign c WHERE c.status = 'APPROVED' AND c.reviewedAt IS NOT NULL " +
+           "GROUP BY FUNCTION('DATE', c.reviewedAt)")
+    List<Object[]> countApprovedPerDay();
+
+    // Rollup deltas for a deleted customer: their campaigns by status, submission day and review day
+    @Query("SELECT c.status, FUNCTION('DATE', c.submittedAt), FUNCTION('DATE', c.reviewedAt), COUNT(c) FROM CustomerCampaign c " +
+           "WHERE c.customer.id = :customerId GROUP BY c.status, FUNCTION('DATE', c.submittedAt), FUNCTION('DATE', c.reviewedAt)")
+    List<Object[]> countByStatusAndDaysForCustomer(@Param("customerId") Long customerId);
 
     // **NEW**: Method to delete campaigns when a customer is deleted
     @Modifying
@@ -0,0 +1,22 @@
+package com.crm.repository;
+
+import com.crm.model.CustomerImportError;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.stream.Stream;
+
+public interface CustomerImportErrorRepository extends JpaRepository<CustomerImportError, Long> {
+
+    // Error report cursor, in file order
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM CustomerImportError e WHERE e.jobId = :jobId ORDER BY e.recordIndex ASC")
+    Stream<CustomerImportError> streamByJobId(@Param("jobId") Long jobId);
+}
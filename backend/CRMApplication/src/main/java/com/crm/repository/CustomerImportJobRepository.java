@@ -0,0 +1,54 @@
+package com.crm.repository;
+
+import com.crm.model.CustomerImportJob;
+import com.crm.model.CustomerImportJob.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CustomerImportJobRepository extends JpaRepository<CustomerImportJob, Long> {
+
+    // Jobs whose worker stopped renewing its lease (crash or restart), or that never got a worker
+    @Query("SELECT j.id FROM CustomerImportJob j WHERE j.status IN ('QUEUED', 'RUNNING') AND j.leaseUntil < :now")
+    List<Long> findInterruptedIds(@Param("now") LocalDateTime now);
+
+    // Takes over an interrupted job, keeping its checkpoint
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerImportJob j SET j.leaseUntil = :leaseUntil " +
+           "WHERE j.id = :id AND j.status IN ('QUEUED', 'RUNNING') AND j.leaseUntil < :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerImportJob j SET j.status = 'RUNNING', j.startedAt = COALESCE(j.startedAt, :now) " +
+           "WHERE j.id = :id AND j.status IN ('QUEUED', 'RUNNING')")
+    int markRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Records one processed batch. Matches only if no other worker has advanced the job since
+     * fromRecord was read, so a worker that lost its lease rolls its batch back instead of
+     * importing it twice.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerImportJob j SET j.recordsRead = :toRecord, j.bytesRead = :bytesRead, " +
+           "j.createdCount = j.createdCount + :created, j.rejectedCount = j.rejectedCount + :rejected, " +
+           "j.failedCount = j.failedCount + :failed, j.leaseUntil = :leaseUntil " +
+           "WHERE j.id = :id AND j.recordsRead = :fromRecord")
+    int checkpoint(@Param("id") Long id, @Param("fromRecord") long fromRecord, @Param("toRecord") long toRecord,
+                   @Param("bytesRead") long bytesRead, @Param("created") long created, @Param("rejected") long rejected,
+                   @Param("failed") long failed, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerImportJob j SET j.status = :status, j.error = :error, j.finishedAt = :finishedAt, " +
+           "j.leaseUntil = NULL WHERE j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") Status status, @Param("error") String error,
+               @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -1,7 +1,81 @@
 package com.crm.repository;
 
 import com.crm.model.EmailCampaign;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface EmailCampaignRepository extends JpaRepository<EmailCampaign, Long> {
-}
\ No newline at end of file
+
+    // The customer-facing campaign list; cached until any campaign row changes
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<EmailCampaign> findAll();
+
+    // Admin edit of the editable fields only; status and the dispatch columns belong to the dispatch engine.
+    // A null body keeps the stored one. Matches nothing while the campaign is being sent.
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailCampaign c SET c.name = :name, c.subject = :subject, c.body = COALESCE(:body, c.body) " +
+           "WHERE c.id = :id AND c.status <> 'sending'")
+    int updateDetails(@Param("id") Long id, @Param("name") String name, @Param("subject") String subject,
+                      @Param("body") String body);
+
+    // Starts a dispatch unless the campaign is already sent or being sent (interrupted sends resume instead)
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailCampaign c SET c.status = 'sending', c.dispatchLeaseUntil = :leaseUntil, c.recipients = :recipients, " +
+           "c.sentCount = 0, c.failedCount = 0, c.lastRecipientId = 0 " +
+           "WHERE c.id = :id AND c.status <> 'sent' AND c.status <> 'sending'")
+    int claimDispatch(@Param("id") Long id, @Param("leaseUntil") LocalDateTime leaseUntil, @Param("recipients") int recipients);
+
+    // Campaigns whose dispatching worker stopped renewing its lease (crash or restart)
+    @Query("SELECT c.id FROM EmailCampaign c WHERE c.status = 'sending' AND c.dispatchLeaseUntil < :now")
+    List<Long> findInterruptedDispatchIds(@Param("now") LocalDateTime now);
+
+    // Takes over an interrupted dispatch, keeping its checkpoint
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailCampaign c SET c.dispatchLeaseUntil = :leaseUntil " +
+           "WHERE c.id = :id AND c.status = 'sending' AND c.dispatchLeaseUntil < :now")
+    int resumeDispatch(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Records one sent chunk. Matches only if no other worker has advanced the dispatch past
+     * fromRecipientId, so a worker whose lease ran out mid-chunk learns it has been replaced.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailCampaign c SET c.lastRecipientId = :lastRecipientId, c.sentCount = c.sentCount + :sent, " +
+           "c.failedCount = c.failedCount + :failed, c.dispatchLeaseUntil = :leaseUntil " +
+           "WHERE c.id = :id AND c.status = 'sending' AND c.lastRecipientId = :fromRecipientId")
+    int checkpoint(@Param("id") Long id, @Param("fromRecipientId") Long fromRecipientId,
+                   @Param("lastRecipientId") Long lastRecipientId, @Param("sent") int sent,
+                   @Param("failed") int failed, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Extends the lease while a chunk is being sent. Matches only the lease value this worker last
+     * wrote, so it fails once the campaign has been handed to another worker.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailCampaign c SET c.dispatchLeaseUntil = :leaseUntil " +
+           "WHERE c.id = :id AND c.status = 'sending' AND c.dispatchLeaseUntil = :currentLease")
+    int renewLease(@Param("id") Long id, @Param("currentLease") LocalDateTime currentLease,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Fenced like checkpoint, so only the worker holding the latest checkpoint can finish the dispatch
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailCampaign c SET c.status = 'sent', c.sentAt = :sentAt, c.dispatchLeaseUntil = NULL " +
+           "WHERE c.id = :id AND c.status = 'sending' AND c.lastRecipientId = :lastRecipientId")
+    int completeDispatch(@Param("id") Long id, @Param("lastRecipientId") Long lastRecipientId, @Param("sentAt") LocalDateTime sentAt);
+}
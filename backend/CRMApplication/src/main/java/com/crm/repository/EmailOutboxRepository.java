@@ -0,0 +1,37 @@
+package com.crm.repository;
+
+import com.crm.model.EmailOutboxMessage;
+import com.crm.model.EmailOutboxMessage.OutboxStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    Page<EmailOutboxMessage> findByStatus(OutboxStatus status, Pageable pageable);
+
+    // Pending messages whose next attempt is due, oldest first
+    @Query("SELECT m.id FROM EmailOutboxMessage m WHERE m.status = :pending AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt ASC")
+    List<Long> findDueIds(@Param("pending") OutboxStatus pending, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Atomically claims a message for delivery; returns 0 if another worker got it first
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :sending, m.nextAttemptAt = :leaseUntil WHERE m.id = :id AND m.status = :pending")
+    int claim(@Param("id") Long id, @Param("pending") OutboxStatus pending, @Param("sending") OutboxStatus sending,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Returns messages to the queue when the worker that claimed them died mid-send
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :pending WHERE m.status = :sending AND m.nextAttemptAt <= :now")
+    int releaseExpiredLeases(@Param("sending") OutboxStatus sending, @Param("pending") OutboxStatus pending,
+                             @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,88 @@
+package com.crm.repository;
+
+import com.crm.model.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintenance of the {@link IdGenerators#TABLE} rows. At startup each segment is raised past the
+ * MAX(id) of its table, so tables that were filled through IDENTITY keys (or by plain SQL) never
+ * get an id handed out twice. Code that inserts rows without Hibernate claims ids through
+ * {@link #reserve(String, int)}.
+ */
+@Repository
+public class IdSequenceRepository {
+
+    // Plain JDBC: a native update through the EntityManager would evict every second-level cache region
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void alignAll() {
+        IdGenerators.SEGMENTS.forEach(this::align);
+    }
+
+    /**
+     * Moves a segment's next block above every id already in its table. Never moves it backwards.
+     * @param segment One of {@link IdGenerators#SEGMENTS}; also the table name.
+     */
+    public void align(String segment) {
+        try {
+            inNewTransaction(() -> {
+                long floor = nextFreeId(segment);
+                if (raise(segment, floor) == 0) {
+                    jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE + " (sequence_name, next_val) VALUES (?, ?)",
+                            segment, floor);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the row first; raise it in case that node saw fewer rows
+            inNewTransaction(() -> raise(segment, nextFreeId(segment)));
+        }
+    }
+
+    /**
+     * Claims a contiguous block of ids in its own short transaction.
+     * @param segment One of {@link IdGenerators#SEGMENTS}.
+     * @param count Number of ids needed.
+     * @return The first id of the block; the block is [first, first + count).
+     */
+    public long reserve(String segment, int count) {
+        Long next = newTransaction().execute(status -> {
+            jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET next_val = next_val + ? WHERE sequence_name = ?",
+                    count, segment);
+            return jdbcTemplate.queryForObject("SELECT next_val FROM " + IdGenerators.TABLE + " WHERE sequence_name = ?",
+                    Long.class, segment);
+        });
+        return next - count;
+    }
+
+    private long nextFreeId(String segment) {
+        // Segment names come from IdGenerators, never from input
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + segment, Long.class);
+    }
+
+    private int raise(String segment, long floor) {
+        return jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET next_val = GREATEST(next_val, ?) WHERE sequence_name = ?",
+                floor, segment);
+    }
+
+    private void inNewTransaction(Runnable work) {
+        newTransaction().executeWithoutResult(status -> work.run());
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+}
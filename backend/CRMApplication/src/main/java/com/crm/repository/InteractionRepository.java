@@ -1,47 +1,142 @@
 package com.crm.repository;
 
+import com.crm.dto.InteractionIndexRow;
+import com.crm.dto.InteractionView;
 import com.crm.model.Interaction;
-import com.crm.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface InteractionRepository extends JpaRepository<Interaction, Long> {
 
+    // Read-side listings select InteractionView directly, joining only the customer's id and name
+    String VIEW_SELECT = "SELECT new com.crm.dto.InteractionView(i.id, i.type, i.subject, i.date, i.status, i.notes, c.id, c.username) " +
+                         "FROM Interaction i JOIN i.customer c ";
+
+    String INDEX_ROW_SELECT = "SELECT i.id AS id, i.customer.id AS customerId, i.type AS type, i.subject AS subject, " +
+                              "i.notes AS notes, i.updatedAt AS updatedAt FROM Interaction i ";
+
     // Finds all interactions for a specific customer with pagination
-    Page<Interaction> findByCustomer(User customer, Pageable pageable);
+    @Query(value = VIEW_SELECT + "WHERE c.id = :customerId",
+           countQuery = "SELECT COUNT(i) FROM Interaction i WHERE i.customer.id = :customerId")
+    Page<InteractionView> findViewsByCustomer(@Param("customerId") Long customerId, Pageable pageable);
 
     // Finds interactions of a specific type for a customer with pagination
-    Page<Interaction> findByCustomerAndType(User customer, String type, Pageable pageable);
+    @Query(value = VIEW_SELECT + "WHERE c.id = :customerId AND i.type = :type",
+           countQuery = "SELECT COUNT(i) FROM Interaction i WHERE i.customer.id = :customerId AND i.type = :type")
+    Page<InteractionView> findViewsByCustomerAndType(@Param("customerId") Long customerId, @Param("type") String type, Pageable pageable);
 
     // Efficiently count interactions for a specific customer
-    long countByCustomer(User customer);
+    long countByCustomerId(Long customerId);
 
     // Search interactions by type and a search term (subject or notes)
-    @Query("SELECT i FROM Interaction i WHERE i.customer = :customer AND i.type = :type AND (i.subject LIKE %:searchTerm% OR i.notes LIKE %:searchTerm%)")
-    Page<Interaction> findByCustomerAndTypeContaining(@Param("customer") User customer, @Param("type") String type, @Param("searchTerm") String searchTerm, Pageable pageable);
+    @Query(value = VIEW_SELECT + "WHERE c.id = :customerId AND i.type = :type AND (i.subject LIKE %:searchTerm% OR i.notes LIKE %:searchTerm%)",
+           countQuery = "SELECT COUNT(i) FROM Interaction i WHERE i.customer.id = :customerId AND i.type = :type " +
+                        "AND (i.subject LIKE %:searchTerm% OR i.notes LIKE %:searchTerm%)")
+    Page<InteractionView> findViewsByCustomerAndTypeContaining(@Param("customerId") Long customerId, @Param("type") String type, @Param("searchTerm") String searchTerm, Pageable pageable);
 
     // Search all interactions for a customer by a search term (subject or notes)
-    @Query("SELECT i FROM Interaction i WHERE i.customer = :customer AND (i.subject LIKE %:searchTerm% OR i.notes LIKE %:searchTerm%)")
-    Page<Interaction> findByCustomerContaining(@Param("customer") User customer, @Param("searchTerm") String searchTerm, Pageable pageable);
+    @Query(value = VIEW_SELECT + "WHERE c.id = :customerId AND (i.subject LIKE %:searchTerm% OR i.notes LIKE %:searchTerm%)",
+           countQuery = "SELECT COUNT(i) FROM Interaction i WHERE i.customer.id = :customerId " +
+                        "AND (i.subject LIKE %:searchTerm% OR i.notes LIKE %:searchTerm%)")
+    Page<InteractionView> findViewsByCustomerContaining(@Param("customerId") Long customerId, @Param("searchTerm") String searchTerm, Pageable pageable);
+
+    // Rows for a set of ids, e.g. the hits of a full-text search
+    @Query(VIEW_SELECT + "WHERE i.id IN :ids")
+    List<InteractionView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
 
     // Analytics query to count interactions by type
-    @Query("SELECT i.type as type, COUNT(i) as count FROM Interaction i WHERE i.customer = :customer GROUP BY i.type")
-    List<Map<String, Object>> countInteractionsByType(@Param("customer") User customer);
+    @Query("SELECT i.type as type, COUNT(i) as count FROM Interaction i WHERE i.customer.id = :customerId GROUP BY i.type")
+    List<Map<String, Object>> countInteractionsByType(@Param("customerId") Long customerId);
 
     // Analytics query to count interactions per day within a date range
-    @Query("SELECT FUNCTION('DATE', i.date), COUNT(i) FROM Interaction i WHERE i.customer = :customer AND i.date >= :startDate GROUP BY FUNCTION('DATE', i.date) ORDER BY FUNCTION('DATE', i.date) ASC")
-    List<Object[]> countInteractionsPerDay(@Param("customer") User customer, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT FUNCTION('DATE', i.date), COUNT(i) FROM Interaction i WHERE i.customer.id = :customerId AND i.date >= :startDate GROUP BY FUNCTION('DATE', i.date) ORDER BY FUNCTION('DATE', i.date) ASC")
+    List<Object[]> countInteractionsPerDay(@Param("customerId") Long customerId, @Param("startDate") LocalDateTime startDate);
+
+    // Rollup reconciliation: interaction counts across all customers
+    @Query("SELECT i.type, COUNT(i) FROM Interaction i GROUP BY i.type")
+    List<Object[]> countAllByType();
+
+    @Query("SELECT i.status, COUNT(i) FROM Interaction i GROUP BY i.status")
+    List<Object[]> countAllByStatus();
+
+    @Query("SELECT FUNCTION('DATE', i.date), COUNT(i) FROM Interaction i WHERE i.date IS NOT NULL GROUP BY FUNCTION('DATE', i.date)")
+    List<Object[]> countAllPerDay();
+
+    // Rollup deltas for a deleted customer: their interactions by type, status and day
+    @Query("SELECT i.type, i.status, FUNCTION('DATE', i.date), COUNT(i) FROM Interaction i WHERE i.customer.id = :customerId " +
+           "GROUP BY i.type, i.status, FUNCTION('DATE', i.date)")
+    List<Object[]> countByTypeStatusAndDayForCustomer(@Param("customerId") Long customerId);
 
     // Method to find interactions by status for the admin approval page
-    Page<Interaction> findByStatus(String status, Pageable pageable);
+    @Query(value = VIEW_SELECT + "WHERE i.status = :status",
+           countQuery = "SELECT COUNT(i) FROM Interaction i WHERE i.status = :status")
+    Page<InteractionView> findViewsByStatus(@Param("status") String status, Pageable pageable);
+
+    // Keyset pagination, newest first: rows strictly after the (date, id) cursor, no COUNT query
+    @Query(VIEW_SELECT + "WHERE c.id = :customerId ORDER BY i.date DESC, i.id DESC")
+    Slice<InteractionView> findFirstSliceByCustomer(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE c.id = :customerId " +
+           "AND (i.date < :date OR (i.date = :date AND i.id < :id)) ORDER BY i.date DESC, i.id DESC")
+    Slice<InteractionView> findSliceByCustomerAfter(@Param("customerId") Long customerId, @Param("date") LocalDateTime date,
+                                                    @Param("id") Long id, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE c.id = :customerId AND i.type = :type ORDER BY i.date DESC, i.id DESC")
+    Slice<InteractionView> findFirstSliceByCustomerAndType(@Param("customerId") Long customerId, @Param("type") String type, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE c.id = :customerId AND i.type = :type " +
+           "AND (i.date < :date OR (i.date = :date AND i.id < :id)) ORDER BY i.date DESC, i.id DESC")
+    Slice<InteractionView> findSliceByCustomerAndTypeAfter(@Param("customerId") Long customerId, @Param("type") String type,
+                                                           @Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE i.status = :status ORDER BY i.date DESC, i.id DESC")
+    Slice<InteractionView> findFirstSliceByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE i.status = :status " +
+           "AND (i.date < :date OR (i.date = :date AND i.id < :id)) ORDER BY i.date DESC, i.id DESC")
+    Slice<InteractionView> findSliceByStatusAfter(@Param("status") String status, @Param("date") LocalDateTime date,
+                                                  @Param("id") Long id, Pageable pageable);
+
+    // Id-ordered chunk of the columns indexed for full-text search
+    @Query(INDEX_ROW_SELECT + "WHERE i.id > :afterId ORDER BY i.id ASC")
+    List<InteractionIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Rows written at or after (since, afterId), in write order; keyset chunks for the search index poll
+    @Query(INDEX_ROW_SELECT + "WHERE i.updatedAt > :since OR (i.updatedAt = :since AND i.id > :afterId) " +
+           "ORDER BY i.updatedAt ASC, i.id ASC")
+    List<InteractionIndexRow> findIndexRowsWrittenAfter(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                                       Pageable pageable);
+
+    // Export cursor, id order; each filter is skipped when null
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(VIEW_SELECT + "WHERE (:customerId IS NULL OR c.id = :customerId) " +
+           "AND (:from IS NULL OR i.date >= :from) AND (:to IS NULL OR i.date < :to) ORDER BY i.id ASC")
+    Stream<InteractionView> streamViews(@Param("customerId") Long customerId, @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    // Rows from before date was required; see DataSeeder
+    @Transactional
+    @Modifying
+    @Query("UPDATE Interaction i SET i.date = :date WHERE i.date IS NULL")
+    int backfillDates(@Param("date") LocalDateTime date);
 
     // Method to delete interactions when a customer is deleted
     @Modifying
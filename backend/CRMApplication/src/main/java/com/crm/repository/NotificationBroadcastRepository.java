@@ -0,0 +1,81 @@
+package com.crm.repository;
+
+import com.crm.dto.NotificationView;
+import com.crm.model.NotificationBroadcast;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationBroadcastRepository extends JpaRepository<NotificationBroadcast, Long> {
+
+    // ---- Fan-out jobs ----
+
+    // Jobs whose worker stopped renewing its lease (crash or restart), or that never got a worker
+    @Query("SELECT b.id FROM NotificationBroadcast b WHERE b.status IN ('QUEUED', 'RUNNING') AND b.leaseUntil < :now")
+    List<Long> findInterruptedIds(@Param("now") LocalDateTime now);
+
+    // Takes over an interrupted job, keeping its checkpoint
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.leaseUntil = :leaseUntil " +
+           "WHERE b.id = :id AND b.status IN ('QUEUED', 'RUNNING') AND b.leaseUntil < :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.status = 'RUNNING', b.startedAt = COALESCE(b.startedAt, :now) " +
+           "WHERE b.id = :id AND b.status IN ('QUEUED', 'RUNNING')")
+    int markRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Records one committed chunk. Matches only if no other worker has advanced the job past
+     * fromUserId, so a worker that lost its lease rolls its chunk back instead of writing it twice.
+     */
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.lastUserId = :toUserId, b.deliveredCount = b.deliveredCount + :delivered, " +
+           "b.leaseUntil = :leaseUntil WHERE b.id = :id AND b.lastUserId = :fromUserId")
+    int checkpoint(@Param("id") Long id, @Param("fromUserId") long fromUserId, @Param("toUserId") long toUserId,
+                   @Param("delivered") long delivered, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationBroadcast b SET b.status = 'COMPLETED', b.finishedAt = :finishedAt, b.leaseUntil = NULL " +
+           "WHERE b.id = :id")
+    int complete(@Param("id") Long id, @Param("finishedAt") LocalDateTime finishedAt);
+
+    // ---- Shared broadcasts, as seen by one customer ----
+
+    String SHARED_VIEW_SELECT = "SELECT new com.crm.dto.NotificationView(b.id, b.message, " +
+            "CASE WHEN b.sequence <= :readUpTo THEN true ELSE false END, b.createdAt) FROM NotificationBroadcast b " +
+            "WHERE b.mode = 'SHARED' AND b.sequence > :fromSequence ";
+
+    // Keyset pagination, newest first, like the customer's own notifications
+    @Query(SHARED_VIEW_SELECT + "ORDER BY b.createdAt DESC, b.id DESC")
+    Slice<NotificationView> findFirstSharedSlice(@Param("readUpTo") long readUpTo, @Param("fromSequence") long fromSequence,
+                                                 Pageable pageable);
+
+    @Query(SHARED_VIEW_SELECT + "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    Slice<NotificationView> findSharedSliceAfter(@Param("readUpTo") long readUpTo, @Param("fromSequence") long fromSequence,
+                                                 @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                 Pageable pageable);
+
+    // Read from the end of the unique sequence index
+    @Query("SELECT MAX(b.sequence) FROM NotificationBroadcast b")
+    Long findLatestSequence();
+
+    // Sequence of the newest shared broadcast with an id up to the given one
+    @Query("SELECT MAX(b.sequence) FROM NotificationBroadcast b WHERE b.id <= :id")
+    Long findLatestSequenceUpToId(@Param("id") Long id);
+
+    // Sequence of the last shared broadcast sent before the given time, e.g. a customer's join date
+    @Query("SELECT MAX(b.sequence) FROM NotificationBroadcast b WHERE b.createdAt <= :time")
+    Long findLatestSequenceAt(@Param("time") LocalDateTime time);
+}
@@ -0,0 +1,61 @@
+package com.crm.repository;
+
+import com.crm.model.NotificationCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+
+    Optional<NotificationCounter> findFirstBy();
+
+    // Adds a delta to the user's counter, creating it if needed, without a read-modify-write round trip.
+    // The native spaces hint names the only table touched; without it Hibernate would evict every
+    // second-level cache region on each notification.
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread, broadcasts_read_up_to) VALUES (:userId, :delta, 0) " +
+                   "ON DUPLICATE KEY UPDATE unread = unread + :delta", nativeQuery = true)
+    void increment(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // One more unread notification for each of the users, in a single statement per broadcast chunk
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread, broadcasts_read_up_to) " +
+                   "SELECT u.id, 1, 0 FROM users u WHERE u.id IN :userIds " +
+                   "ON DUPLICATE KEY UPDATE unread = unread + 1", nativeQuery = true)
+    int incrementAll(@Param("userIds") Collection<Long> userIds);
+
+    // Moves the shared broadcast watermark forward, never back
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread, broadcasts_read_up_to) VALUES (:userId, 0, :upTo) " +
+                   "ON DUPLICATE KEY UPDATE broadcasts_read_up_to = GREATEST(broadcasts_read_up_to, :upTo)", nativeQuery = true)
+    void markBroadcastsRead(@Param("userId") Long userId, @Param("upTo") long upTo);
+
+    // Records where the user's shared broadcasts start; the first value written wins
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread, broadcasts_read_up_to, broadcasts_from) " +
+                   "VALUES (:userId, 0, 0, :fromSequence) " +
+                   "ON DUPLICATE KEY UPDATE broadcasts_from = COALESCE(broadcasts_from, :fromSequence)", nativeQuery = true)
+    void setBroadcastsFrom(@Param("userId") Long userId, @Param("fromSequence") long fromSequence);
+
+    // Seeds counters for notifications stored before counters were maintained
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread, broadcasts_read_up_to) " +
+                   "SELECT user_id, COUNT(*), 0 FROM notifications WHERE is_read = false GROUP BY user_id", nativeQuery = true)
+    int backfill();
+
+    @Modifying
+    @Query("DELETE FROM NotificationCounter c WHERE c.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,18 +1,72 @@
 package com.crm.repository;
 
+import com.crm.dto.NotificationView;
 import com.crm.model.Notification;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    String VIEW_SELECT = "SELECT new com.crm.dto.NotificationView(n.id, n.message, n.isRead, n.createdAt) FROM Notification n ";
+
+    // Keyset pagination, newest first: rows strictly after the (createdAt, id) cursor, no COUNT query
+    @Query(VIEW_SELECT + "WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NotificationView> findFirstSlice(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE n.user.id = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NotificationView> findSliceAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NotificationView> findFirstUnreadSlice(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE n.user.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<NotificationView> findUnreadSliceAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id, Pageable pageable);
+
+    // Stream replay: what a reconnecting client missed after the last id it saw
+    @Query(VIEW_SELECT + "WHERE n.user.id = :userId AND n.id > :afterId ORDER BY n.id ASC")
+    List<NotificationView> findViewsAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Broadcast push: the listed users' rows within one fan-out chunk's id block, with the owner to route each by
+    @Query("SELECT n.user.id, n.id, n.message, n.isRead, n.createdAt FROM Notification n " +
+           "WHERE n.id >= :firstId AND n.id < :endId AND n.user.id IN :userIds")
+    List<Object[]> findInBlockForUsers(@Param("firstId") long firstId, @Param("endId") long endId,
+                                       @Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt ASC, n.id ASC")
+    List<Long> findUnreadIds(@Param("userId") Long userId, Pageable pageable);
+
+    // Returns how many rows actually flipped, so the unread counter can be lowered by exactly that much
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.id IN :ids AND n.isRead = false")
+    int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Broadcast fan-out: one notification per listed user in a single statement, numbered in user id
+    // order from a block of ids reserved through IdSequenceRepository
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notifications"))
+    @Query(value = "INSERT INTO notifications (id, user_id, message, is_read, created_at) " +
+                   "SELECT :firstId + ROW_NUMBER() OVER (ORDER BY u.id) - 1, u.id, :message, false, :createdAt " +
+                   "FROM users u WHERE u.id IN :userIds", nativeQuery = true)
+    int insertBroadcast(@Param("firstId") long firstId, @Param("message") String message,
+                        @Param("createdAt") LocalDateTime createdAt, @Param("userIds") Collection<Long> userIds);
 
     // **NEW**: Method to delete notifications when a user is deleted
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.user.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+}
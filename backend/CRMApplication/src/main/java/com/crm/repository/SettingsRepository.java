@@ -2,6 +2,24 @@ package com.crm.repository;
 
 import com.crm.model.Settings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface SettingsRepository extends JpaRepository<Settings, Long> {
-}
\ No newline at end of file
+
+    // Scalar query: always goes to the database, bypassing the second-level cache
+    @Query("SELECT s.version FROM Settings s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT s FROM Settings s WHERE s.id = :id")
+    Optional<Settings> findFreshById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Settings s SET s.generalSettings = :general, s.emailSettings = :email, " +
+           "s.securitySettings = :security, s.version = s.version + 1 WHERE s.id = :id")
+    int update(@Param("id") Long id, @Param("general") String general,
+               @Param("email") String email, @Param("security") String security);
+}
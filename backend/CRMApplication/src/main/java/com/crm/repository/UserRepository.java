@@ -1,28 +1,99 @@
 package com.crm.repository;
 
+import com.crm.dto.CampaignRecipient;
 import com.crm.model.Role;
 import com.crm.model.User;
 import com.crm.model.User.UserStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Served from the query cache (ids) plus the users entity region on repeat lookups
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
 
+    // Status-only lookup used by the JWT filter, avoids loading the full entity
+    @Query("SELECT u.status FROM User u WHERE u.id = :id")
+    Optional<UserStatus> findStatusById(@Param("id") Long id);
+
+    // Existence check for a batch of ids without loading the entities
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.role = :role")
+    List<Long> findIdsByRole(@Param("ids") Collection<Long> ids, @Param("role") Role role);
+
+    // Uniqueness pre-check for a batch of new users; values come back as stored
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     Page<User> findByRole(Role role, Pageable pageable);
 
     Page<User> findByRoleAndStatus(Role role, UserStatus status, Pageable pageable);
     
     long countByRole(Role role);
 
+    // Keyset pagination by (joinDate, id), newest first, no COUNT query
+    @Query("SELECT u FROM User u WHERE u.role = :role ORDER BY u.joinDate DESC, u.id DESC")
+    Slice<User> findFirstSliceByRole(@Param("role") Role role, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.role = :role " +
+           "AND (u.joinDate < :joinDate OR (u.joinDate = :joinDate AND u.id < :id)) ORDER BY u.joinDate DESC, u.id DESC")
+    Slice<User> findSliceByRoleAfter(@Param("role") Role role, @Param("joinDate") LocalDateTime joinDate,
+                                     @Param("id") Long id, Pageable pageable);
+
     long countByRoleAndStatus(Role role, UserStatus status);
 
+    // Rows from before joinDate was required; see DataSeeder
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.joinDate = :joinDate WHERE u.joinDate IS NULL")
+    int backfillJoinDates(@Param("joinDate") LocalDateTime joinDate);
+
+    // Export cursor: fetched from the driver in blocks of 1000, read-only and kept out of the L2 cache
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT u FROM User u WHERE u.role = :role ORDER BY u.id ASC")
+    Stream<User> streamByRole(@Param("role") Role role);
+
+    // Keyset-paged recipient chunk for campaign dispatch; only the columns needed to address a mail
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM User u " +
+           "WHERE u.role = :role AND u.status = :status AND u.id > :afterId ORDER BY u.id ASC")
+    List<CampaignRecipient> findCampaignRecipients(@Param("role") Role role, @Param("status") UserStatus status,
+                                                   @Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset-paged recipient chunk for broadcast fan-out; the notifications are written by INSERT ... SELECT
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.status = :status AND u.id > :afterId ORDER BY u.id ASC")
+    List<Long> findIdsByRoleAndStatusAfter(@Param("role") Role role, @Param("status") UserStatus status,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+
+    // Rollup reconciliation: users of a role by status, and joins per day
+    @Query("SELECT u.status, COUNT(u) FROM User u WHERE u.role = :role GROUP BY u.status")
+    List<Object[]> countByStatusForRole(@Param("role") Role role);
+
+    @Query("SELECT FUNCTION('DATE', u.joinDate), COUNT(u) FROM User u WHERE u.role = :role AND u.joinDate IS NOT NULL " +
+           "GROUP BY FUNCTION('DATE', u.joinDate)")
+    List<Object[]> countJoinedPerDay(@Param("role") Role role);
+
     // **NEW**: Analytics query to count new customers by month
     @Query("SELECT FUNCTION('YEAR', u.joinDate) as year, FUNCTION('MONTH', u.joinDate) as month, COUNT(u.id) as count " +
            "FROM User u WHERE u.role = com.crm.model.Role.ROLE_CUSTOMER " +
@@ -0,0 +1,405 @@
+package com.crm.search;
+
+import com.crm.dto.InteractionIndexRow;
+import com.crm.model.Interaction;
+import com.crm.repository.InteractionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index over interaction subjects and notes, stored on local disk, one per node.
+ * This node's writes are applied after commit; writes from every node are picked up by polling
+ * for interactions whose updatedAt is past the previous poll, less search.index.poll-lag-ms to
+ * cover transactions still open at the time and clock skew between nodes. The index is rebuilt
+ * from the database on startup when empty. Until the index is ready, searches fall back to SQL.
+ *
+ * Each index commit records the start of the last poll it covers, so startup polls from there
+ * instead of rebuilding. Deleting a customer removes their documents from this node's index only;
+ * other nodes keep them until their next rebuild, which searches do not notice because they are
+ * filtered by an existing customer and hits are loaded from the database by id.
+ */
+@Component
+public class InteractionSearchIndex {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_CUSTOMER = "customerId";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_SUBJECT = "subject";
+    private static final String FIELD_NOTES = "notes";
+    private static final int REBUILD_CHUNK = 1000;
+    private static final String COMMIT_POLLED_UP_TO = "interactionsPolledUpTo";
+
+    @Autowired
+    private InteractionRepository interactionRepository;
+
+    @Value("${search.index.dir:./data/interaction-index}")
+    private String indexDir;
+
+    @Value("${search.index.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${search.index.poll-lag-ms:60000}")
+    private long pollLagMs;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+    // Start of the last completed poll or rebuild
+    private volatile LocalDateTime polledUpTo;
+    // Serializes rebuild, catch-up and polls, which all read from the database into the writer
+    private final Object pollLock = new Object();
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        LocalDateTime mark = committedPolledUpTo();
+        // An index without a mark predates it or was left halfway through a rebuild
+        Runnable work = !rebuildOnStartup && writer.getDocStats().numDocs > 0 && mark != null
+                ? () -> catchUp(mark)
+                : this::rebuild;
+        Thread rebuild = new Thread(work, "search-index-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Re-indexes every interaction from the database, reading it in id-ordered chunks.
+     */
+    public void rebuild() {
+        ready = false;
+        synchronized (pollLock) {
+            try {
+                LocalDateTime started = LocalDateTime.now();
+                writer.deleteAll();
+                // Drops the mark, so a commit of the half-built index is rebuilt again on startup
+                writer.setLiveCommitData(Map.<String, String>of().entrySet());
+                long lastId = 0;
+                List<InteractionIndexRow> chunk;
+                do {
+                    chunk = interactionRepository.findIndexRowsAfter(lastId, PageRequest.of(0, REBUILD_CHUNK));
+                    for (InteractionIndexRow row : chunk) {
+                        index(row);
+                        lastId = row.getId();
+                    }
+                } while (chunk.size() == REBUILD_CHUNK);
+                // Rows written while the rebuild ran are picked up by the next poll
+                polledUpTo = started;
+                commitWithPolledUpTo(started);
+                searcherManager.maybeRefresh();
+                ready = true;
+                System.out.println("Interaction search index rebuilt with " + writer.getDocStats().numDocs + " documents.");
+            } catch (IOException e) {
+                System.err.println("Error while rebuilding interaction search index: " + e.getMessage());
+            }
+        }
+    }
+
+    // Adds the interactions written after the last index commit, e.g. after a crash or on another node
+    private void catchUp(LocalDateTime mark) {
+        synchronized (pollLock) {
+            try {
+                polledUpTo = mark;
+                long indexed = indexWrittenSincePoll();
+                commitWithPolledUpTo(polledUpTo);
+                searcherManager.maybeRefresh();
+                ready = true;
+                System.out.println("Interaction search index caught up with " + indexed + " documents written since " + mark + ".");
+            } catch (IOException e) {
+                System.err.println("Error while updating interaction search index: " + e.getMessage());
+            }
+        }
+    }
+
+    // Picks up interactions written on any node since the previous poll
+    @Scheduled(fixedDelayString = "${search.index.poll-interval-ms:5000}")
+    public void poll() {
+        if (!ready) {
+            return;
+        }
+        synchronized (pollLock) {
+            try {
+                indexWrittenSincePoll();
+            } catch (IOException e) {
+                System.err.println("Error while updating interaction search index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the interactions written since the previous poll started, less the lag, in
+     * (updatedAt, id) order. Rows within the lag are indexed again by each poll; documents are
+     * replaced by id, so that and rows also written by indexAfterCommit are not duplicated.
+     */
+    private long indexWrittenSincePoll() throws IOException {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = polledUpTo.minus(Duration.ofMillis(pollLagMs));
+        long afterId = 0;
+        long indexed = 0;
+        List<InteractionIndexRow> chunk;
+        do {
+            chunk = interactionRepository.findIndexRowsWrittenAfter(since, afterId, PageRequest.of(0, REBUILD_CHUNK));
+            for (InteractionIndexRow row : chunk) {
+                index(row);
+                since = row.getUpdatedAt();
+                afterId = row.getId();
+            }
+            indexed += chunk.size();
+        } while (chunk.size() == REBUILD_CHUNK);
+        polledUpTo = started;
+        return indexed;
+    }
+
+    private void index(InteractionIndexRow row) throws IOException {
+        writer.updateDocument(new Term(FIELD_ID, String.valueOf(row.getId())),
+                toDocument(row.getId(), row.getCustomerId(), row.getType(), row.getSubject(), row.getNotes()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or replaces an interaction in the index once the surrounding transaction commits.
+     * @param interaction The saved interaction.
+     */
+    public void indexAfterCommit(Interaction interaction) {
+        Document document = toDocument(interaction.getId(), interaction.getCustomer().getId(), interaction.getType(),
+                interaction.getSubject(), interaction.getNotes());
+        Term idTerm = new Term(FIELD_ID, String.valueOf(interaction.getId()));
+        afterCommit(() -> writer.updateDocument(idTerm, document));
+    }
+
+    /**
+     * Removes all of a customer's interactions once the surrounding transaction commits.
+     * @param customerId The deleted customer.
+     */
+    public void deleteCustomerAfterCommit(Long customerId) {
+        Term customerTerm = new Term(FIELD_CUSTOMER, String.valueOf(customerId));
+        afterCommit(() -> writer.deleteDocuments(customerTerm));
+    }
+
+    /**
+     * Ranked search within one customer's interactions. Every word must match the subject or
+     * notes; the last word also matches as a prefix, so results update while the user types.
+     * @param customerId Customer whose interactions are searched.
+     * @param type Optional interaction type filter, null for all types.
+     * @param searchTerm Free-text query.
+     * @param pageable Page to return.
+     * @return Matching interaction ids in rank order, plus the total hit count.
+     */
+    public SearchResult search(Long customerId, String type, String searchTerm, Pageable pageable) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(FIELD_CUSTOMER, String.valueOf(customerId))), BooleanClause.Occur.FILTER);
+        if (type != null) {
+            query.add(new TermQuery(new Term(FIELD_TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+        List<String> tokens = tokenize(searchTerm);
+        if (tokens.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            query.add(textQuery(tokens.get(i), i == tokens.size() - 1), BooleanClause.Occur.MUST);
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            Query built = query.build();
+            int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+            TopDocs topDocs = searcher.search(built, Math.max(limit, 1));
+            List<Long> ids = new ArrayList<>(pageable.getPageSize());
+            for (int i = (int) pageable.getOffset(); i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc hit = topDocs.scoreDocs[i];
+                ids.add(Long.parseLong(searcher.storedFields().document(hit.doc).get(FIELD_ID)));
+            }
+            return new SearchResult(ids, searcher.count(built));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException ignored) {
+                    // Releasing only decrements a reference count
+                }
+            }
+        }
+    }
+
+    // Makes recent updates visible to searches
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    // Persists the index so a restart does not need a rebuild; skipped while a rebuild or catch-up runs
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:30000}")
+    public synchronized void commit() throws IOException {
+        if (!ready) {
+            return;
+        }
+        if (writer.hasUncommittedChanges() || !polledUpTo.equals(committedPolledUpTo())) {
+            commitWithPolledUpTo(polledUpTo);
+        }
+    }
+
+    private synchronized void commitWithPolledUpTo(LocalDateTime mark) throws IOException {
+        writer.setLiveCommitData(Map.of(COMMIT_POLLED_UP_TO, mark.toString()).entrySet());
+        writer.commit();
+    }
+
+    private LocalDateTime committedPolledUpTo() {
+        Iterable<Map.Entry<String, String>> data = writer.getLiveCommitData();
+        if (data != null) {
+            for (Map.Entry<String, String> entry : data) {
+                if (COMMIT_POLLED_UP_TO.equals(entry.getKey())) {
+                    return LocalDateTime.parse(entry.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private Query textQuery(String token, boolean prefix) {
+        BooleanQuery.Builder either = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(FIELD_SUBJECT, token)), 2f), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(FIELD_NOTES, token)), BooleanClause.Occur.SHOULD);
+        if (prefix) {
+            either.add(new PrefixQuery(new Term(FIELD_SUBJECT, token)), BooleanClause.Occur.SHOULD)
+                  .add(new PrefixQuery(new Term(FIELD_NOTES, token)), BooleanClause.Occur.SHOULD);
+        }
+        return either.build();
+    }
+
+    private List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(FIELD_NOTES, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private static Document toDocument(Long id, Long customerId, String type, String subject, String notes) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, String.valueOf(id), Field.Store.YES));
+        document.add(new StringField(FIELD_CUSTOMER, String.valueOf(customerId), Field.Store.NO));
+        if (type != null) {
+            document.add(new StringField(FIELD_TYPE, type, Field.Store.NO));
+        }
+        if (subject != null) {
+            document.add(new TextField(FIELD_SUBJECT, subject, Field.Store.NO));
+        }
+        if (notes != null) {
+            document.add(new TextField(FIELD_NOTES, notes, Field.Store.NO));
+        }
+        return document;
+    }
+
+    private void afterCommit(IndexOperation operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            run(operation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                run(operation);
+            }
+        });
+    }
+
+    private void run(IndexOperation operation) {
+        try {
+            operation.apply();
+        } catch (IOException e) {
+            // The index can always be rebuilt from the database
+            System.err.println("Error while updating interaction search index: " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void apply() throws IOException;
+    }
+
+    /**
+     * Ids of one page of hits in rank order, and the total number of hits.
+     */
+    public static class SearchResult {
+        private final List<Long> ids;
+        private final long totalHits;
+
+        public SearchResult(List<Long> ids, long totalHits) {
+            this.ids = ids;
+            this.totalHits = totalHits;
+        }
+
+        public List<Long> getIds() { return ids; }
+        public long getTotalHits() { return totalHits; }
+    }
+}
@@ -0,0 +1,48 @@
+package com.crm.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this machine stays within a budget.
+ * Each cost step doubles the work, so the search stops as soon as the next step would overshoot.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE = "calibration-sample-password";
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * @param targetMillis Budget for a single hash.
+     * @param minStrength Floor that is used even if it exceeds the budget.
+     * @param maxStrength Ceiling for the search.
+     * @return The chosen cost.
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        double millis = measure(strength);
+        while (strength < maxStrength && millis * 2 <= targetMillis) {
+            strength++;
+            millis = measure(strength);
+        }
+        if (millis > targetMillis && strength > minStrength) {
+            strength--;
+        }
+        return strength;
+    }
+
+    // Best of a few runs after one warm-up, in milliseconds
+    private static double measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.crm.security;
+
+import com.crm.model.Role;
+import com.crm.model.User.UserStatus;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal built from the claims of a verified JWT.
+ * It carries just enough to authorize a request, so no User entity has to be loaded.
+ */
+public class JwtPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final Role role;
+    private final UserStatus status;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtPrincipal(Long id, String username, Role role, UserStatus status) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.status = status;
+        this.authorities = List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    public Long getId() { return id; }
+    public Role getRole() { return role; }
+    public UserStatus getStatus() { return status; }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return status == UserStatus.ACTIVE;
+    }
+}
@@ -1,17 +1,31 @@
 package com.crm.security;
 
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.crm.model.User.UserStatus;
+import com.crm.settings.SystemSettingsHolder;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -20,6 +34,11 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    // Custom claims embedded at login so requests can be authorized without a DB lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+
     // These @Value annotations inject properties from application.properties
     @Value("${jwt.secret}")
     private String secret;
@@ -27,6 +46,82 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SystemSettingsHolder systemSettingsHolder;
+
+    // Built once at startup; both are immutable and thread-safe.
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache tokenCache;
+    private Counter cacheHits;
+    private Timer verifyValid;
+    private Timer verifyInvalid;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.tokenCache = new VerifiedTokenCache(cacheMaxSize);
+        this.cacheHits = Counter.builder("crm.jwt.cache.hits")
+                .description("Tokens served from the verified-token cache")
+                .register(meterRegistry);
+        this.verifyValid = verifyTimer("valid");
+        this.verifyInvalid = verifyTimer("invalid");
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("crm.jwt.verify")
+                .description("Time spent verifying a JWT signature on a cache miss")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies the token and returns its claims. Tokens that were already verified are
+     * served from the cache, so the signature is checked at most once per token.
+     * @param token The JWT token.
+     * @return The verified claims, or null if the token is malformed, forged or expired.
+     */
+    public Claims resolveClaims(String token) {
+        Claims claims = tokenCache.get(token);
+        if (claims != null) {
+            cacheHits.increment();
+            return claims;
+        }
+        long start = System.nanoTime();
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        tokenCache.put(token, claims);
+        return claims;
+    }
+
+    /**
+     * Builds a principal from the claims of a verified token.
+     * @param claims Claims returned by {@link #resolveClaims(String)}.
+     * @return The principal, or null if the token predates the embedded claims.
+     */
+    public JwtPrincipal toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String status = claims.get(CLAIM_STATUS, String.class);
+        if (userId == null || role == null || status == null) {
+            return null;
+        }
+        return new JwtPrincipal(userId.longValue(), claims.getSubject(), Role.valueOf(role), UserStatus.valueOf(status));
+    }
+
     /**
      * Extracts the username from the JWT token.
      * @param token The JWT token.
@@ -57,15 +152,12 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                   .setSigningKey(getSigningKey())
-                   .build()
-                   .parseClaimsJws(token)
-                   .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        Claims claims = resolveClaims(token);
+        if (claims == null) {
+            // Re-parse so the caller gets the precise JwtException (expired, bad signature, ...)
+            return jwtParser.parseClaimsJws(token).getBody();
+        }
+        return claims;
     }
 
     /**
@@ -75,7 +167,11 @@ public class JwtUtil {
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        // You can add extra claims here if needed
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_STATUS, user.getStatus().name());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -84,11 +180,17 @@ public class JwtUtil {
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + tokenLifetimeMs()))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // The admin's session timeout, when set, overrides jwt.expiration for newly issued tokens
+    private long tokenLifetimeMs() {
+        Duration sessionTimeout = systemSettingsHolder.current().getSessionTimeout();
+        return sessionTimeout != null ? sessionTimeout.toMillis() : expiration;
+    }
+
     /**
      * Validates the JWT token.
      * @param token The JWT token.
@@ -96,15 +198,9 @@ public class JwtUtil {
      * @return True if the token is valid, false otherwise.
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-    
-    /**
-     * Generates the signing key from the secret string.
-     * @return A SecretKey object.
-     */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        final Claims claims = resolveClaims(token);
+        return claims != null
+                && Objects.equals(claims.getSubject(), userDetails.getUsername())
+                && claims.getExpiration().after(new Date());
     }
 }
\ No newline at end of file
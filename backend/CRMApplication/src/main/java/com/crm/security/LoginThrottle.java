@@ -0,0 +1,119 @@
+package com.crm.security;
+
+import com.crm.exception.TooManyAttemptsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-window login throttling, checked before any password is hashed. Every attempt counts
+ * against the client address; only failed attempts count against the username, and a successful
+ * login clears them. A limit of zero or less disables that check.
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${security.login.max-attempts-per-address:30}")
+    private int maxAttemptsPerAddress;
+
+    @Value("${security.login.address-window-seconds:60}")
+    private long addressWindowSeconds;
+
+    @Value("${security.login.max-failures-per-user:5}")
+    private int maxFailuresPerUser;
+
+    @Value("${security.login.user-window-seconds:300}")
+    private long userWindowSeconds;
+
+    private final Map<String, Window> addressWindows = new ConcurrentHashMap<>();
+    private final Map<String, Window> userWindows = new ConcurrentHashMap<>();
+
+    /**
+     * Counts an attempt from the address and rejects it if either budget is exhausted.
+     * @param username The username being signed in.
+     * @param clientAddress The remote address, or null if unknown.
+     */
+    public void checkAllowed(String username, String clientAddress) {
+        long now = System.currentTimeMillis();
+        if (username != null && maxFailuresPerUser > 0) {
+            Window window = userWindows.get(normalize(username));
+            long retryAfter = window == null ? 0 : window.blockedFor(maxFailuresPerUser, now);
+            if (retryAfter > 0) {
+                throw new TooManyAttemptsException("Too many failed sign-in attempts for this account, please retry later", retryAfter);
+            }
+        }
+        if (clientAddress != null && maxAttemptsPerAddress > 0) {
+            Window window = addressWindows.computeIfAbsent(clientAddress, key -> new Window(addressWindowSeconds));
+            long retryAfter = window.increment(maxAttemptsPerAddress, now);
+            if (retryAfter > 0) {
+                throw new TooManyAttemptsException("Too many sign-in attempts from this address, please retry later", retryAfter);
+            }
+        }
+    }
+
+    public void recordFailure(String username) {
+        if (username != null && maxFailuresPerUser > 0) {
+            userWindows.computeIfAbsent(normalize(username), key -> new Window(userWindowSeconds))
+                    .increment(Integer.MAX_VALUE, System.currentTimeMillis());
+        }
+    }
+
+    public void recordSuccess(String username) {
+        if (username != null) {
+            userWindows.remove(normalize(username));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        addressWindows.values().removeIf(window -> window.isExpired(now));
+        userWindows.values().removeIf(window -> window.isExpired(now));
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase();
+    }
+
+    // Package-private for LoginThrottleTests
+    static final class Window {
+        private final long lengthMillis;
+        private long start;
+        private int count;
+
+        Window(long lengthSeconds) {
+            this.lengthMillis = TimeUnit.SECONDS.toMillis(lengthSeconds);
+        }
+
+        // Counts one event; returns the seconds until the window resets if the limit is exceeded, else 0
+        synchronized long increment(int limit, long now) {
+            roll(now);
+            count++;
+            return count > limit ? retryAfter(now) : 0;
+        }
+
+        synchronized long blockedFor(int limit, long now) {
+            roll(now);
+            return count >= limit ? retryAfter(now) : 0;
+        }
+
+        synchronized boolean isExpired(long now) {
+            return now - start >= lengthMillis;
+        }
+
+        private void roll(long now) {
+            if (now - start >= lengthMillis) {
+                start = now;
+                count = 0;
+            }
+        }
+
+        private long retryAfter(long now) {
+            return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(start + lengthMillis - now + 999));
+        }
+    }
+}
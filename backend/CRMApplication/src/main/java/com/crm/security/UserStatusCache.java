@@ -0,0 +1,77 @@
+package com.crm.security;
+
+import com.crm.model.User.UserStatus;
+import com.crm.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of account status by user id. Lets the JWT filter reject suspended or
+ * deleted users without loading the full User row on every request.
+ */
+@Component
+public class UserStatusCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.status-cache.ttl-ms:30000}")
+    private long ttlMillis;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the current status of a user, reading the database at most once per TTL.
+     * @param userId The user id from the token.
+     * @return The status, or null if the user no longer exists.
+     */
+    public UserStatus getStatus(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry == null || now - entry.loadedAt > ttlMillis) {
+            entry = new Entry(userRepository.findStatusById(userId).orElse(null), now);
+            entries.put(userId, entry);
+        }
+        return entry.status;
+    }
+
+    /**
+     * Forgets the cached status of a user. When called inside a transaction the eviction
+     * happens after commit, so a concurrent request cannot re-cache the old value.
+     * @param userId The user whose status changed.
+     */
+    public void evict(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(userId);
+                }
+            });
+        }
+        entries.remove(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.status-cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now - entry.loadedAt > ttlMillis);
+    }
+
+    private static final class Entry {
+        private final UserStatus status;
+        private final long loadedAt;
+
+        private Entry(UserStatus status, long loadedAt) {
+            this.status = status;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.crm.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of JWTs whose signature has already been verified.
+ * Entries are keyed by a SHA-256 hash of the raw token (so the token itself is never kept)
+ * and are dropped as soon as the token expires. Claims objects are mutable, so entries hold a
+ * read-only copy of the claim values and every lookup gets its own Claims built from it.
+ */
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached claims for a token, or null if the token is unknown or has expired.
+     * @param token The raw JWT.
+     * @return A new Claims instance with the verified claims, or null.
+     */
+    public Claims get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return Jwts.claims(entry.claims);
+    }
+
+    /**
+     * Stores the claims of a freshly verified token until the token's own expiry.
+     * @param token The raw JWT.
+     * @param claims The claims produced by signature verification.
+     */
+    public void put(String token, Claims claims) {
+        if (maxSize <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(hash(token), new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    /**
+     * Removes a token from the cache, e.g. when it has been revoked.
+     * @param token The raw JWT.
+     */
+    public void invalidate(String token) {
+        entries.remove(hash(token));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops expired tokens first; if the cache is still full, trims it back to 90% of its capacity.
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        int target = (int) (maxSize * 0.9);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static final class Entry {
+        // Claim values are strings and numbers (dates as epoch seconds), so a shallow copy is enough
+        private final Map<String, Object> claims;
+        private final long expiresAt;
+
+        private Entry(Claims claims, long expiresAt) {
+            this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.crm.service;
 
-import com.crm.model.CustomerCampaign;
+import com.crm.dto.CursorPage;
+import com.crm.dto.CustomerCampaignView;
+import com.crm.dto.InteractionView;
 import com.crm.model.EmailCampaign;
-import com.crm.model.Interaction;
+import com.crm.model.EmailOutboxMessage;
 import com.crm.model.Settings;
 import com.crm.model.User;
 import org.springframework.data.domain.Page;
@@ -14,6 +16,7 @@ public interface AdminService {
 
     // Customer Management
     Page<User> getAllCustomers(Pageable pageable);
+    CursorPage<User> getAllCustomers(String cursor, int size);
     User addCustomer(User customer);
     User updateCustomer(Long id, User customerDetails);
     void deleteCustomer(Long id);
@@ -25,16 +28,18 @@ public interface AdminService {
 
     // Analytics
     Map<String, Object> getAdminAnalytics();
+    Map<String, Object> getCustomerAnalyticsCacheStats();
 
     // Email Campaigns
     Page<EmailCampaign> getAllCampaigns(Pageable pageable);
     EmailCampaign createCampaign(EmailCampaign campaign);
     EmailCampaign updateCampaign(Long id, EmailCampaign campaignDetails);
     void deleteCampaign(Long id);
+    EmailCampaign sendCampaign(Long id);
 
     // Customer Campaign Approval
-    List<CustomerCampaign> getPendingCampaigns();
-    CustomerCampaign updateCustomerCampaignStatus(Long campaignId, String status);
+    List<CustomerCampaignView> getPendingCampaigns();
+    CustomerCampaignView updateCustomerCampaignStatus(Long campaignId, String status);
 
     // Admin Profile Management
     User getAdminProfile(String username);
@@ -45,7 +50,12 @@ public interface AdminService {
     Settings getSystemSettings();
     Settings updateSystemSettings(Settings settings);
     
+    // Email Outbox
+    Page<EmailOutboxMessage> getOutboxMessages(String status, Pageable pageable);
+    EmailOutboxMessage retryOutboxMessage(Long messageId);
+
     // Interaction Approval
-    Page<Interaction> getPendingInteractions(Pageable pageable);
-    Interaction updateInteractionStatus(Long interactionId, String status);
+    Page<InteractionView> getPendingInteractions(Pageable pageable);
+    CursorPage<InteractionView> getPendingInteractions(String cursor, int size);
+    InteractionView updateInteractionStatus(Long interactionId, String status);
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.crm.service;
+
+import com.crm.model.AnalyticsRollup;
+import com.crm.model.User.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains precomputed analytics counters so dashboards never aggregate the source tables.
+ * Write paths report changes here; the deltas are applied after the surrounding transaction
+ * commits and a periodic job reconciles the counters against the source tables.
+ */
+public interface AnalyticsRollupService {
+
+    String CUSTOMERS_TOTAL = "customers.total";
+    String CUSTOMERS_STATUS = "customers.status.";
+    String CUSTOMERS_JOINED = "customers.joined";
+    String CUSTOMERS_ACTIVATED = "customers.activated";
+    String INTERACTIONS_TOTAL = "interactions.total";
+    String INTERACTIONS_TYPE = "interactions.type.";
+    String INTERACTIONS_STATUS = "interactions.status.";
+    String INTERACTIONS_CREATED = "interactions.created";
+    String CAMPAIGNS_TOTAL = "campaigns.total";
+    String CAMPAIGNS_STATUS = "campaigns.status.";
+    String CAMPAIGNS_SUBMITTED = "campaigns.submitted";
+    String CAMPAIGNS_APPROVED = "campaigns.approved";
+
+    // Write-side hooks
+    void customerJoined(LocalDateTime joinDate, UserStatus status);
+    void customerRemoved(LocalDateTime joinDate, UserStatus status);
+
+    /**
+     * Takes a deleted customer out of the counters, along with their interactions and campaigns.
+     * Call it before their rows are deleted: it counts them in the current transaction and
+     * applies the deltas after it commits.
+     */
+    void customerDeleted(Long customerId, LocalDateTime joinDate, UserStatus status);
+    void customerStatusChanged(UserStatus from, UserStatus to);
+    void interactionCreated(String type, String status, LocalDateTime date);
+    void interactionStatusChanged(String from, String to);
+    void campaignSubmitted(LocalDateTime submittedAt);
+    void campaignStatusChanged(String from, String to, LocalDateTime reviewedAt);
+
+    // Read side
+    Map<String, Long> getTotals();
+    List<AnalyticsRollup> getSeries(AnalyticsRollup.Granularity granularity, String metric);
+
+    // Maintenance
+    void flush();
+    void reconcile();
+}
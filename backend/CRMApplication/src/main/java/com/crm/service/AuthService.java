@@ -21,7 +21,22 @@ public interface AuthService {
     /**
      * Authenticates a user and generates a JWT token upon successful login.
      * @param authRequest DTO containing the user's login credentials.
+     * @param clientAddress Remote address of the caller, used for attempt throttling (may be null).
      * @return An AuthResponse containing the JWT token and user ID.
      */
-    AuthResponse login(AuthRequest authRequest);
-}
\ No newline at end of file
+    AuthResponse login(AuthRequest authRequest, String clientAddress);
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * The presented token is rotated and cannot be used again.
+     * @param refreshToken The refresh token issued at login or by the previous refresh.
+     * @return An AuthResponse with the new token pair.
+     */
+    AuthResponse refresh(String refreshToken);
+
+    /**
+     * Revokes a refresh token together with every token rotated from the same login.
+     * @param refreshToken The client's current refresh token.
+     */
+    void logout(String refreshToken);
+}
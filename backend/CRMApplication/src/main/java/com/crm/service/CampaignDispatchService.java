@@ -0,0 +1,18 @@
+package com.crm.service;
+
+import com.crm.model.EmailCampaign;
+
+/**
+ * Sends marketing email campaigns to all active customers in the background.
+ */
+public interface CampaignDispatchService {
+
+    /**
+     * Starts sending a campaign. Returns immediately; progress is tracked on the campaign
+     * (recipients, sentCount, failedCount) and the send resumes from its last checkpoint
+     * if the application stops halfway.
+     * @param campaignId The campaign to send.
+     * @return The campaign in 'sending' status.
+     */
+    EmailCampaign startDispatch(Long campaignId);
+}
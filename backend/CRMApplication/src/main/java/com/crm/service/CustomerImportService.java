@@ -0,0 +1,38 @@
+package com.crm.service;
+
+import com.crm.export.ExportFormat;
+import com.crm.model.CustomerImportJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Bulk customer onboarding from CSV or NDJSON files, run as resumable background jobs.
+ */
+public interface CustomerImportService {
+
+    /**
+     * Saves the upload and queues it for import. Returns as soon as the file is on disk.
+     * Each record needs username, email and password; age, phone, address and adharCard are
+     * optional. Imported customers are ACTIVE, as if added by an admin.
+     * @param format CSV with a header row, or NDJSON / a JSON array.
+     * @param fileName The client's name for the file, kept for display only; may be null.
+     * @param body The upload; read once, front to back.
+     * @return The queued job.
+     * @throws IllegalArgumentException if the upload exceeds customers.import.max-bytes.
+     */
+    CustomerImportJob submit(ExportFormat format, String fileName, InputStream body) throws IOException;
+
+    /**
+     * @return The job with its progress counters.
+     * @throws com.crm.exception.ResourceNotFoundException if there is no such job.
+     */
+    CustomerImportJob getJob(Long jobId);
+
+    /**
+     * Writes the records a job rejected or failed to save, in file order.
+     * @return The number of rows written.
+     */
+    long writeErrorReport(Long jobId, ExportFormat format, OutputStream out) throws IOException;
+}
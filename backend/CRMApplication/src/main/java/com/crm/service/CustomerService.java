@@ -1,5 +1,8 @@
 package com.crm.service;
 
+import com.crm.dto.CursorPage;
+import com.crm.dto.CustomerCampaignView;
+import com.crm.dto.InteractionView;
 import com.crm.model.CustomerCampaign;
 import com.crm.model.EmailCampaign;
 import com.crm.model.Interaction;
@@ -21,11 +24,12 @@ public interface CustomerService {
     Map<String, Object> getCustomerAnalytics(Long customerId);
 
     // Interactions & Campaigns
-    Page<Interaction> getInteractionsForCustomer(Long customerId, String type, String searchTerm, Pageable pageable);
+    Page<InteractionView> getInteractionsForCustomer(Long customerId, String type, String searchTerm, Pageable pageable);
+    CursorPage<InteractionView> getInteractionsForCustomer(Long customerId, String type, String cursor, int size);
     List<EmailCampaign> getCampaignsForCustomer(Long customerId);
-    Interaction addInteraction(Long customerId, Interaction interaction);
+    InteractionView addInteraction(Long customerId, Interaction interaction);
 
     // Customer Submitted Campaigns
-    CustomerCampaign submitCampaign(Long customerId, CustomerCampaign campaign);
-    List<CustomerCampaign> getSubmittedCampaigns(Long customerId);
+    CustomerCampaignView submitCampaign(Long customerId, CustomerCampaign campaign);
+    List<CustomerCampaignView> getSubmittedCampaigns(Long customerId);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.crm.service;
+
+import com.crm.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface ExportService {
+
+    /**
+     * Writes every customer to the stream, in id order, straight from a database cursor.
+     * Passwords and Aadhaar numbers are not exported.
+     * @return The number of rows written.
+     */
+    long exportCustomers(ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Writes interactions to the stream, in id order, straight from a database cursor.
+     * @param customerId Only this customer's interactions, or all if null.
+     * @param from Inclusive lower bound on the interaction date, or null.
+     * @param to Exclusive upper bound on the interaction date, or null.
+     * @return The number of rows written.
+     */
+    long exportInteractions(ExportFormat format, Long customerId, LocalDateTime from, LocalDateTime to,
+                            OutputStream out) throws IOException;
+}
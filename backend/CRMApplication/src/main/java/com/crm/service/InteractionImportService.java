@@ -0,0 +1,21 @@
+package com.crm.service;
+
+import com.crm.dto.InteractionImportResult;
+import com.crm.dto.InteractionImportSummary;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface InteractionImportService {
+
+    /**
+     * Reads interactions from a stream of NDJSON records or a JSON array and stores them in
+     * batches as they arrive. Each record needs customerId and type; subject, status (default
+     * PENDING), date (ISO-8601, default now) and notes are optional.
+     * @param body The request body; read once, front to back.
+     * @param onBatch Receives the results of each batch, in record order, once it is committed.
+     * @return Totals, plus the reason if the body could not be read to the end.
+     */
+    InteractionImportSummary importInteractions(InputStream body, Consumer<List<InteractionImportResult>> onBatch);
+}
@@ -0,0 +1,23 @@
+package com.crm.service;
+
+import com.crm.model.NotificationBroadcast;
+
+/**
+ * Announcements to every active customer.
+ */
+public interface NotificationBroadcastService {
+
+    /**
+     * Broadcasts a message.
+     * @param mode FANOUT queues a background job that gives every customer their own notification;
+     *             SHARED stores the broadcast once and is complete on return.
+     * @return The broadcast; a FANOUT one reports its progress through {@link #getBroadcast(Long)}.
+     */
+    NotificationBroadcast broadcast(String message, NotificationBroadcast.Mode mode);
+
+    /**
+     * @return The broadcast with its progress counters.
+     * @throws com.crm.exception.ResourceNotFoundException if there is no such broadcast.
+     */
+    NotificationBroadcast getBroadcast(Long broadcastId);
+}
@@ -0,0 +1,71 @@
+package com.crm.service;
+
+import com.crm.dto.CursorPage;
+import com.crm.dto.NotificationView;
+import com.crm.model.Notification;
+import com.crm.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface NotificationService {
+
+    /**
+     * Stores a notification for the user. It is pushed to the user's open notification streams
+     * once the surrounding transaction commits.
+     */
+    Notification notify(User user, String message);
+
+    /**
+     * Notifications newer than afterId, oldest first; used to replay what a reconnecting stream missed.
+     */
+    List<NotificationView> findAfter(Long userId, long afterId, int limit);
+
+    /**
+     * The given users' copies from one fan-out chunk of a broadcast, in a single query.
+     * @param firstId Id of the chunk's first notification; the chunk holds at most size ids from there.
+     * @return Each user's copy, keyed by user id.
+     */
+    Map<Long, NotificationView> findBroadcastCopies(Collection<Long> userIds, long firstId, int size);
+
+    /**
+     * One page of the user's notifications, newest first.
+     * @param unreadOnly Whether to leave out notifications already read.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     */
+    CursorPage<NotificationView> getNotifications(Long userId, boolean unreadOnly, String cursor, int size);
+
+    /**
+     * The user's unread count: the maintained counter of their own notifications, plus the shared
+     * broadcasts past their read watermark.
+     */
+    long countUnread(Long userId);
+
+    /**
+     * One page of the shared broadcasts sent since the user joined, newest first. A broadcast is
+     * read once the user's watermark has reached it.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     */
+    CursorPage<NotificationView> getBroadcasts(Long userId, String cursor, int size);
+
+    /**
+     * Marks shared broadcasts as read for the user, up to and including the given one.
+     * @param upToId The newest broadcast read, or null for all of them.
+     */
+    void markBroadcastsRead(Long userId, Long upToId);
+
+    /**
+     * Marks the given notifications of the user as read. Ids that belong to someone else or are
+     * already read are ignored.
+     * @return How many notifications changed from unread to read.
+     */
+    int markRead(Long userId, Collection<Long> ids);
+
+    /**
+     * Marks every unread notification of the user as read, one batch per transaction, and every
+     * shared broadcast.
+     * @return How many notifications changed from unread to read.
+     */
+    int markAllRead(Long userId);
+}
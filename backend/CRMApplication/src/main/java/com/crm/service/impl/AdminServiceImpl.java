@@ -1,35 +1,64 @@
 package com.crm.service.impl;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.cache.CacheInvalidationService;
+import com.crm.cache.CacheRegions;
+import com.crm.dto.Cursor;
+import com.crm.dto.CursorPage;
+import com.crm.dto.CustomerCampaignView;
+import com.crm.dto.InteractionView;
 import com.crm.exception.ResourceNotFoundException;
+import com.crm.model.AnalyticsRollup;
+import com.crm.model.AnalyticsRollup.Granularity;
 import com.crm.model.CustomerCampaign;
 import com.crm.model.EmailCampaign;
+import com.crm.model.EmailOutboxMessage;
+import com.crm.model.EmailOutboxMessage.OutboxStatus;
 import com.crm.model.Interaction;
-import com.crm.model.Notification;
 import com.crm.model.Role;
 import com.crm.model.Settings;
 import com.crm.model.User;
 import com.crm.model.User.UserStatus;
 import com.crm.repository.CustomerCampaignRepository;
 import com.crm.repository.EmailCampaignRepository;
+import com.crm.repository.EmailOutboxRepository;
 import com.crm.repository.InteractionRepository;
+import com.crm.repository.NotificationCounterRepository;
 import com.crm.repository.NotificationRepository;
-import com.crm.repository.SettingsRepository;
+import com.crm.repository.RefreshTokenRepository;
 import com.crm.repository.UserRepository;
+import com.crm.security.UserStatusCache;
+import com.crm.search.InteractionSearchIndex;
+import com.crm.settings.SystemSettingsHolder;
 import com.crm.service.AdminService;
+import com.crm.service.AnalyticsRollupService;
+import com.crm.service.CampaignDispatchService;
 import com.crm.service.EmailService;
+import com.crm.service.NotificationService;
+import com.crm.template.EmailTemplateRegistry;
 
 @Service
 @Transactional
@@ -40,9 +69,26 @@ public class AdminServiceImpl implements AdminService {
     @Autowired private CustomerCampaignRepository customerCampaignRepository;
     @Autowired private InteractionRepository interactionRepository;
     @Autowired private NotificationRepository notificationRepository;
+    @Autowired private NotificationCounterRepository notificationCounterRepository;
+    @Autowired private NotificationService notificationService;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
     @Autowired private PasswordEncoder passwordEncoder;
-    @Autowired private SettingsRepository settingsRepository;
     @Autowired private EmailService emailService;
+    @Autowired private UserStatusCache userStatusCache;
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private CampaignDispatchService campaignDispatchService;
+    @Autowired private EmailTemplateRegistry emailTemplateRegistry;
+    @Autowired private SystemSettingsHolder systemSettingsHolder;
+    @Autowired private InteractionSearchIndex interactionSearchIndex;
+    @Autowired private AnalyticsRollupService analyticsRollupService;
+    @Autowired private CustomerAnalyticsCache customerAnalyticsCache;
+    @Autowired private CacheInvalidationService cacheInvalidationService;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String LOGIN_URL = "http://localhost:5173/login";
 
     @Override
     public User approveCustomer(Long customerId) {
@@ -52,65 +98,50 @@ public class AdminServiceImpl implements AdminService {
         
         customer.setStatus(UserStatus.ACTIVE);
         User updatedCustomer = userRepository.save(customer);
+        userStatusCache.evict(customerId);
+        analyticsRollupService.customerStatusChanged(UserStatus.PENDING, UserStatus.ACTIVE);
         
         String subject = "Your Account has been Approved!";
-        String htmlBody = buildAccountApprovalEmail(updatedCustomer.getUsername());
+        String htmlBody = emailTemplateRegistry.render(EmailTemplateRegistry.ACCOUNT_APPROVED, Map.of(
+                "username", updatedCustomer.getUsername(),
+                "loginUrl", LOGIN_URL,
+                "year", LocalDateTime.now().getYear()));
         emailService.sendHtmlMessage(updatedCustomer.getEmail(), subject, htmlBody);
         
         return updatedCustomer;
     }
     
-    private String buildAccountApprovalEmail(String username) {
-        return "<!DOCTYPE html>" +
-               "<html lang='en'>" +
-               "<head><style>" +
-               "  body { font-family: Arial, sans-serif; margin: 0; padding: 0; background-color: #f4f4f4; }" +
-               "  .container { max-width: 600px; margin: 20px auto; background-color: #ffffff; padding: 20px; border-radius: 8px; box-shadow: 0 4px 8px rgba(0,0,0,0.1); }" +
-               "  .header { text-align: center; padding-bottom: 20px; border-bottom: 1px solid #dddddd; }" +
-               "  .header img { max-width: 120px; margin-bottom: 10px; }" +
-               "  .content { padding: 20px 0; line-height: 1.6; color: #333333; }" +
-               "  .content h1 { color: #27ae60; }" +
-               "  .button-container { text-align: center; margin-top: 20px; }" +
-               "  .button { background-color: #3498db; color: #ffffff; padding: 12px 25px; text-decoration: none; border-radius: 5px; font-weight: bold; }" +
-               "  .footer { text-align: center; font-size: 12px; color: #777777; padding-top: 20px; border-top: 1px solid #dddddd; }" +
-               "</style></head>" +
-               "<body>" +
-               "<div class='container'>" +
-               "  <div class='header'>" +
-               // **MODIFIED**: Using the new image link for account approval.
-               "    <img src='https://t4.ftcdn.net/jpg/14/67/59/79/240_F_1467597954_xDk60hyOse7gKb80oiEuhwzavp9Szpsb.jpg' alt='Account Approved'>" +
-               "    <h1>Welcome Aboard!</h1>" +
-               "  </div>" +
-               "  <div class='content'>" +
-               "    <p>Hello " + username + ",</p>" +
-               "    <p>Great news! Your account with the Customer Management System has been reviewed and approved by an administrator. You can now log in and access your dashboard.</p>" +
-               "    <div class='button-container'>" +
-               "      <a href='http://localhost:5173/login' class='button'>Login to Your Account</a>" +
-               "    </div>" +
-               "  </div>" +
-               "  <div class='footer'>" +
-               "    <p>&copy; " + LocalDateTime.now().getYear() + " CRM Project. All rights reserved.</p>" +
-               "  </div>" +
-               "</div>" +
-               "</body>" +
-               "</html>";
-    }
-    
     @Override
     public Page<User> getAllCustomers(Pageable pageable) {
         return userRepository.findByRole(Role.ROLE_CUSTOMER, pageable);
     }
     
     @Override
+    public CursorPage<User> getAllCustomers(String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, CursorPage.clampSize(size));
+        Slice<User> slice = after == null
+                ? userRepository.findFirstSliceByRole(Role.ROLE_CUSTOMER, limit)
+                : userRepository.findSliceByRoleAfter(Role.ROLE_CUSTOMER, after.getTimestamp(), after.getId(), limit);
+        return CursorPage.of(slice, u -> new Cursor(u.getJoinDate(), u.getId()));
+    }
+
+    // Hashes before the transaction opens, so no pooled connection is held during the BCrypt work
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User addCustomer(User customer) {
         if (customer.getPassword() == null || customer.getPassword().isEmpty()) {
             throw new IllegalArgumentException("Password is required for a new customer.");
         }
-        customer.setRole(Role.ROLE_CUSTOMER);
         customer.setPassword(passwordEncoder.encode(customer.getPassword()));
-        customer.setStatus(UserStatus.ACTIVE);
-        customer.setJoinDate(LocalDateTime.now());
-        return userRepository.save(customer);
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            customer.setRole(Role.ROLE_CUSTOMER);
+            customer.setStatus(UserStatus.ACTIVE);
+            customer.setJoinDate(LocalDateTime.now());
+            User savedCustomer = userRepository.save(customer);
+            analyticsRollupService.customerJoined(savedCustomer.getJoinDate(), savedCustomer.getStatus());
+            return savedCustomer;
+        });
     }
 
     @Override
@@ -125,7 +156,12 @@ public class AdminServiceImpl implements AdminService {
         customer.setAge(customerDetails.getAge());
         customer.setAdharCard(customerDetails.getAdharCard());
         customer.setAddress(customerDetails.getAddress());
+        UserStatus previousStatus = customer.getStatus();
         customer.setStatus(customerDetails.getStatus());
+        userStatusCache.evict(id);
+        if (previousStatus != null && customer.getStatus() != null) {
+            analyticsRollupService.customerStatusChanged(previousStatus, customer.getStatus());
+        }
 
         return userRepository.save(customer);
     }
@@ -137,11 +173,18 @@ public class AdminServiceImpl implements AdminService {
             .filter(user -> user.getRole() == Role.ROLE_CUSTOMER)
             .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + id));
 
+        // Counted before the rows go; applied once the delete commits
+        analyticsRollupService.customerDeleted(id, customer.getJoinDate(), customer.getStatus());
         interactionRepository.deleteByCustomerId(id);
+        interactionSearchIndex.deleteCustomerAfterCommit(id);
         notificationRepository.deleteByUserId(id);
+        notificationCounterRepository.deleteByUserId(id);
         customerCampaignRepository.deleteByCustomerId(id);
+        refreshTokenRepository.deleteByUserId(id);
 
         userRepository.delete(customer);
+        userStatusCache.evict(id);
+        customerAnalyticsCache.evict(id);
     }
     
     @Override
@@ -157,88 +200,94 @@ public class AdminServiceImpl implements AdminService {
         
         String customerEmail = customer.getEmail();
         userRepository.delete(customer);
+        userStatusCache.evict(customerId);
+        analyticsRollupService.customerRemoved(customer.getJoinDate(), UserStatus.PENDING);
 
-        // **MODIFIED**: Using the new image link for account rejection.
-        String htmlContent = "<html>"
-        + "<body>"
-        + "<h2>Account Update</h2>"
-        + "<p>We regret to inform you that your registration for the CRM Portal has been rejected.</p>"
-        + "<img src='https://as2.ftcdn.net/jpg/16/89/36/13/1000_F_1689361346_oEbH0YOaWwkpPDqyttMbJ66hPCQ1siIM.jpg' "
-        + "alt='Rejected' width='400'/>"
-        + "</body>"
-        + "</html>";
-        
-        emailService.sendSimpleMessage(customerEmail, "Account Update", htmlContent);
+        String htmlContent = emailTemplateRegistry.render(EmailTemplateRegistry.ACCOUNT_REJECTED, Map.of());
+        emailService.sendHtmlMessage(customerEmail, "Account Update", htmlContent);
     }
 
     @Override
-    public List<CustomerCampaign> getPendingCampaigns() {
-        return customerCampaignRepository.findByStatus("PENDING");
+    public List<CustomerCampaignView> getPendingCampaigns() {
+        return customerCampaignRepository.findViewsByStatus("PENDING");
     }
 
     @Override
-    public CustomerCampaign updateCustomerCampaignStatus(Long campaignId, String status) {
+    public CustomerCampaignView updateCustomerCampaignStatus(Long campaignId, String status) {
         CustomerCampaign campaign = customerCampaignRepository.findById(campaignId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer Campaign not found: " + campaignId));
         
+        String previousStatus = campaign.getStatus();
         campaign.setStatus(status.toUpperCase());
         campaign.setReviewedAt(LocalDateTime.now());
+        analyticsRollupService.campaignStatusChanged(previousStatus, campaign.getStatus(), campaign.getReviewedAt());
+        customerAnalyticsCache.evict(campaign.getCustomer().getId());
         
-        Notification notification = new Notification();
-        notification.setUser(campaign.getCustomer());
         String message = String.format("Your campaign proposal '%s' has been %s by the admin.", campaign.getTitle(), status.toLowerCase());
-        notification.setMessage(message);
-        notificationRepository.save(notification);
+        notificationService.notify(campaign.getCustomer(), message);
 
-        return customerCampaignRepository.save(campaign);
+        return CustomerCampaignView.from(customerCampaignRepository.save(campaign));
+    }
+
+    @Override
+    public Page<InteractionView> getPendingInteractions(Pageable pageable) {
+        return interactionRepository.findViewsByStatus("PENDING", pageable);
     }
 
     @Override
-    public Page<Interaction> getPendingInteractions(Pageable pageable) {
-        return interactionRepository.findByStatus("PENDING", pageable);
+    public CursorPage<InteractionView> getPendingInteractions(String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, CursorPage.clampSize(size));
+        Slice<InteractionView> slice = after == null
+                ? interactionRepository.findFirstSliceByStatus("PENDING", limit)
+                : interactionRepository.findSliceByStatusAfter("PENDING", after.getTimestamp(), after.getId(), limit);
+        return CursorPage.of(slice, i -> new Cursor(i.getDate(), i.getId()));
     }
 
     @Override
-    public Interaction updateInteractionStatus(Long interactionId, String status) {
+    public InteractionView updateInteractionStatus(Long interactionId, String status) {
         Interaction interaction = interactionRepository.findById(interactionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Interaction not found with id: " + interactionId));
 
+        String previousStatus = interaction.getStatus();
         interaction.setStatus(status.toUpperCase());
         Interaction updatedInteraction = interactionRepository.save(interaction);
+        analyticsRollupService.interactionStatusChanged(previousStatus, updatedInteraction.getStatus());
+        customerAnalyticsCache.evict(interaction.getCustomer().getId());
+        interactionSearchIndex.indexAfterCommit(updatedInteraction);
 
-        Notification notification = new Notification();
-        notification.setUser(interaction.getCustomer());
         String message = String.format(
             "Admin has reviewed your interaction '%s'. New status: %s",
             interaction.getSubject(),
             status.toLowerCase()
         );
-        notification.setMessage(message);
-        notificationRepository.save(notification);
+        notificationService.notify(interaction.getCustomer(), message);
 
-        return updatedInteraction;
+        return InteractionView.from(updatedInteraction);
     }
     
     @Override
     public Map<String, Object> getAdminAnalytics() {
+        // Served from the precomputed rollups; nothing here scans the source tables
+        Map<String, Long> totals = analyticsRollupService.getTotals();
+        long totalCustomers = totals.getOrDefault(AnalyticsRollupService.CUSTOMERS_TOTAL, 0L);
+        long activeCustomers = totals.getOrDefault(AnalyticsRollupService.CUSTOMERS_STATUS + UserStatus.ACTIVE, 0L);
+
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalCustomers", userRepository.countByRole(Role.ROLE_CUSTOMER));
-        stats.put("activeCustomers", userRepository.countByRoleAndStatus(Role.ROLE_CUSTOMER, UserStatus.ACTIVE));
-        stats.put("totalInteractions", interactionRepository.count());
-        stats.put("conversionRate", 68); // Placeholder
+        stats.put("totalCustomers", totalCustomers);
+        stats.put("activeCustomers", activeCustomers);
+        stats.put("totalInteractions", totals.getOrDefault(AnalyticsRollupService.INTERACTIONS_TOTAL, 0L));
+        stats.put("conversionRate", totalCustomers == 0 ? 0 : Math.round(activeCustomers * 100.0 / totalCustomers));
 
-        List<Object[]> monthlyCounts = userRepository.countCustomersByMonth();
         List<Map<String, Object>> customerGrowthData = new ArrayList<>();
         long cumulativeCount = 0;
 
-        for (Object[] row : monthlyCounts) {
-            Integer year = (Integer) row[0];
-            Integer month = (Integer) row[1];
-            long countInMonth = (long) row[2];
-            cumulativeCount += countInMonth;
-            
+        for (AnalyticsRollup month : analyticsRollupService.getSeries(Granularity.MONTH, AnalyticsRollupService.CUSTOMERS_JOINED)) {
+            cumulativeCount += month.getValue();
+            LocalDate periodStart = month.getId().getPeriodStart();
+
             Map<String, Object> monthData = new HashMap<>();
-            monthData.put("date", String.format("%d-%02d", year, month));
+            monthData.put("date", String.format("%d-%02d", periodStart.getYear(), periodStart.getMonthValue()));
             monthData.put("count", cumulativeCount);
             customerGrowthData.add(monthData);
         }
@@ -247,6 +296,11 @@ public class AdminServiceImpl implements AdminService {
         return stats;
     }
 
+    @Override
+    public Map<String, Object> getCustomerAnalyticsCacheStats() {
+        return customerAnalyticsCache.getStats();
+    }
+
     @Override
     public Page<EmailCampaign> getAllCampaigns(Pageable pageable) {
         return emailCampaignRepository.findAll(pageable);
@@ -263,13 +317,20 @@ public class AdminServiceImpl implements AdminService {
 
     @Override
     public EmailCampaign updateCampaign(Long id, EmailCampaign campaignDetails) {
-        EmailCampaign campaign = emailCampaignRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Email Campaign not found: " + id));
-        
-        campaign.setName(campaignDetails.getName());
-        campaign.setSubject(campaignDetails.getSubject());
-        campaign.setStatus(campaignDetails.getStatus());
-        return emailCampaignRepository.save(campaign);
+        if (!emailCampaignRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Email Campaign not found: " + id);
+        }
+        // A bulk update rather than save(): saving the loaded entity would write back stale status and
+        // checkpoint columns over a dispatch that started or advanced in the meantime
+        if (emailCampaignRepository.updateDetails(id, campaignDetails.getName(), campaignDetails.getSubject(),
+                campaignDetails.getBody()) == 0) {
+            throw new IllegalStateException("Campaign is being sent and cannot be edited until the send finishes.");
+        }
+        // Bulk updates evict the campaigns region locally only; other nodes learn of it on their next poll
+        cacheInvalidationService.markDirty(CacheRegions.CAMPAIGNS);
+        // The local eviction happens at commit, so read the updated row past the second-level cache
+        return entityManager.find(EmailCampaign.class, id,
+                Map.of(AvailableHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS));
     }
 
     @Override
@@ -280,6 +341,12 @@ public class AdminServiceImpl implements AdminService {
         emailCampaignRepository.deleteById(id);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EmailCampaign sendCampaign(Long id) {
+        return campaignDispatchService.startDispatch(id);
+    }
+
     @Override
     public User getAdminProfile(String username) {
         return userRepository.findByUsername(username)
@@ -297,31 +364,53 @@ public class AdminServiceImpl implements AdminService {
         return userRepository.save(admin);
     }
 
+    // Like addCustomer, both BCrypt calls run before the transaction opens
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changeAdminPassword(String username, Map<String, String> passwordData) {
-        User admin = getAdminProfile(username);
-        if (!passwordEncoder.matches(passwordData.get("currentPassword"), admin.getPassword())) {
+        if (!passwordEncoder.matches(passwordData.get("currentPassword"), getAdminProfile(username).getPassword())) {
             throw new IllegalArgumentException("Incorrect current password.");
         }
-        admin.setPassword(passwordEncoder.encode(passwordData.get("newPassword")));
-        userRepository.save(admin);
+        String passwordHash = passwordEncoder.encode(passwordData.get("newPassword"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User admin = getAdminProfile(username);
+            admin.setPassword(passwordHash);
+            userRepository.save(admin);
+            // Sessions started with the old password must sign in again
+            refreshTokenRepository.deleteByUserId(admin.getId());
+        });
+    }
+
+    @Override
+    public Page<EmailOutboxMessage> getOutboxMessages(String status, Pageable pageable) {
+        if (status == null || status.isEmpty()) {
+            return emailOutboxRepository.findAll(pageable);
+        }
+        return emailOutboxRepository.findByStatus(OutboxStatus.valueOf(status.toUpperCase()), pageable);
     }
 
     @Override
+    public EmailOutboxMessage retryOutboxMessage(Long messageId) {
+        EmailOutboxMessage message = emailOutboxRepository.findById(messageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Outbox message not found: " + messageId));
+        if (message.getStatus() != OutboxStatus.DEAD) {
+            throw new IllegalArgumentException("Only dead-lettered messages can be retried.");
+        }
+        message.setStatus(OutboxStatus.PENDING);
+        message.setAttempts(0);
+        message.setNextAttemptAt(LocalDateTime.now());
+        return emailOutboxRepository.save(message);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Settings getSystemSettings() {
-        return settingsRepository.findById(1L).orElseGet(() -> {
-            Settings newSettings = new Settings();
-            newSettings.setId(1L);
-            newSettings.setGeneralSettings("{}");
-            newSettings.setEmailSettings("{}");
-            newSettings.setSecuritySettings("{}");
-            return settingsRepository.save(newSettings);
-        });
+        return systemSettingsHolder.current().toEntity();
     }
 
     @Override
     public Settings updateSystemSettings(Settings settings) {
-        settings.setId(1L); 
-        return settingsRepository.save(settings);
+        return systemSettingsHolder.update(
+                settings.getGeneralSettings(), settings.getEmailSettings(), settings.getSecuritySettings()).toEntity();
     }
 }
\ No newline at end of file
@@ -0,0 +1,328 @@
+package com.crm.service.impl;
+
+import com.crm.model.AnalyticsRollup;
+import com.crm.model.AnalyticsRollup.Granularity;
+import com.crm.model.AnalyticsRollup.RollupKey;
+import com.crm.model.Role;
+import com.crm.model.User.UserStatus;
+import com.crm.repository.AnalyticsRollupRepository;
+import com.crm.repository.CustomerCampaignRepository;
+import com.crm.repository.InteractionRepository;
+import com.crm.repository.UserRepository;
+import com.crm.service.AnalyticsRollupService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+public class AnalyticsRollupServiceImpl implements AnalyticsRollupService {
+
+    @Autowired private AnalyticsRollupRepository analyticsRollupRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private InteractionRepository interactionRepository;
+    @Autowired private CustomerCampaignRepository customerCampaignRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Committed-but-unflushed deltas. Writers add under the read lock; flush swaps the map under the write lock.
+    private Map<RollupKey, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+    // A j.u.c. lock rather than a monitor: the flush does JDBC work and must not pin a virtual thread's carrier
+    private final Lock flushLock = new ReentrantLock();
+
+    // ---- Write-side hooks ----
+
+    @Override
+    public void customerJoined(LocalDateTime joinDate, UserStatus status) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, CUSTOMERS_TOTAL, 1);
+        total(deltas, CUSTOMERS_STATUS + status, 1);
+        periodic(deltas, CUSTOMERS_JOINED, joinDate, 1);
+        afterCommit(deltas);
+    }
+
+    @Override
+    public void customerRemoved(LocalDateTime joinDate, UserStatus status) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, CUSTOMERS_TOTAL, -1);
+        total(deltas, CUSTOMERS_STATUS + status, -1);
+        periodic(deltas, CUSTOMERS_JOINED, joinDate, -1);
+        afterCommit(deltas);
+    }
+
+    @Override
+    public void customerDeleted(Long customerId, LocalDateTime joinDate, UserStatus status) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, CUSTOMERS_TOTAL, -1);
+        total(deltas, CUSTOMERS_STATUS + status, -1);
+        periodic(deltas, CUSTOMERS_JOINED, joinDate, -1);
+        // Same groups as reconcile(), so rows it leaves out (no date) are left out here too
+        for (Object[] group : interactionRepository.countByTypeStatusAndDayForCustomer(customerId)) {
+            long count = ((Number) group[3]).longValue();
+            total(deltas, INTERACTIONS_TOTAL, -count);
+            total(deltas, INTERACTIONS_TYPE + group[0], -count);
+            total(deltas, INTERACTIONS_STATUS + group[1], -count);
+            if (group[2] != null) {
+                periodic(deltas, INTERACTIONS_CREATED, toLocalDate(group[2]).atStartOfDay(), -count);
+            }
+        }
+        for (Object[] group : customerCampaignRepository.countByStatusAndDaysForCustomer(customerId)) {
+            long count = ((Number) group[3]).longValue();
+            total(deltas, CAMPAIGNS_TOTAL, -count);
+            total(deltas, CAMPAIGNS_STATUS + group[0], -count);
+            if (group[1] != null) {
+                periodic(deltas, CAMPAIGNS_SUBMITTED, toLocalDate(group[1]).atStartOfDay(), -count);
+            }
+            if ("APPROVED".equals(group[0]) && group[2] != null) {
+                periodic(deltas, CAMPAIGNS_APPROVED, toLocalDate(group[2]).atStartOfDay(), -count);
+            }
+        }
+        afterCommit(deltas);
+    }
+
+    @Override
+    public void customerStatusChanged(UserStatus from, UserStatus to) {
+        if (from == to) {
+            return;
+        }
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, CUSTOMERS_STATUS + from, -1);
+        total(deltas, CUSTOMERS_STATUS + to, 1);
+        if (to == UserStatus.ACTIVE) {
+            periodic(deltas, CUSTOMERS_ACTIVATED, LocalDateTime.now(), 1);
+        }
+        afterCommit(deltas);
+    }
+
+    @Override
+    public void interactionCreated(String type, String status, LocalDateTime date) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, INTERACTIONS_TOTAL, 1);
+        total(deltas, INTERACTIONS_TYPE + type, 1);
+        total(deltas, INTERACTIONS_STATUS + status, 1);
+        periodic(deltas, INTERACTIONS_CREATED, date, 1);
+        afterCommit(deltas);
+    }
+
+    @Override
+    public void interactionStatusChanged(String from, String to) {
+        if (from != null && from.equals(to)) {
+            return;
+        }
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, INTERACTIONS_STATUS + from, -1);
+        total(deltas, INTERACTIONS_STATUS + to, 1);
+        afterCommit(deltas);
+    }
+
+    @Override
+    public void campaignSubmitted(LocalDateTime submittedAt) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, CAMPAIGNS_TOTAL, 1);
+        total(deltas, CAMPAIGNS_STATUS + "PENDING", 1);
+        periodic(deltas, CAMPAIGNS_SUBMITTED, submittedAt, 1);
+        afterCommit(deltas);
+    }
+
+    @Override
+    public void campaignStatusChanged(String from, String to, LocalDateTime reviewedAt) {
+        if (from != null && from.equals(to)) {
+            return;
+        }
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        total(deltas, CAMPAIGNS_STATUS + from, -1);
+        total(deltas, CAMPAIGNS_STATUS + to, 1);
+        if ("APPROVED".equals(to)) {
+            periodic(deltas, CAMPAIGNS_APPROVED, reviewedAt, 1);
+        }
+        afterCommit(deltas);
+    }
+
+    // ---- Read side ----
+
+    @Override
+    public Map<String, Long> getTotals() {
+        Map<String, Long> totals = new HashMap<>();
+        for (AnalyticsRollup rollup : analyticsRollupRepository.findByIdGranularity(Granularity.TOTAL)) {
+            totals.put(rollup.getId().getMetric(), rollup.getValue());
+        }
+        return totals;
+    }
+
+    @Override
+    public List<AnalyticsRollup> getSeries(Granularity granularity, String metric) {
+        return analyticsRollupRepository.findByIdGranularityAndIdMetricOrderByIdPeriodStartAsc(granularity, metric);
+    }
+
+    // ---- Maintenance ----
+
+    @Override
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<RollupKey, LongAdder> batch = swapPending();
+            if (batch.isEmpty()) {
+                return;
+            }
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> batch.forEach((key, delta) -> {
+                long value = delta.sum();
+                if (value != 0) {
+                    analyticsRollupRepository.increment(key.getGranularity().name(), key.getPeriodStart(), key.getMetric(), value);
+                }
+            }));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 15 3 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileIfEmpty() {
+        if (analyticsRollupRepository.findByIdGranularity(Granularity.TOTAL).isEmpty()) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recomputes every counter that can be derived from the source tables and replaces the stored
+     * rows in one transaction. customers.activated has no source timestamp and is left as is.
+     */
+    @Override
+    public void reconcile() {
+        flushLock.lock();
+        try {
+            // One snapshot for all of the counts
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            transaction.executeWithoutResult(status -> {
+                // Discarded right before the first count, which fixes the snapshot: deltas buffered up to
+                // here are in the recount, later ones belong to writes it does not see. Swapping any
+                // earlier would let writes committed in between be counted twice.
+                swapPending();
+                Map<RollupKey, Long> rows = new HashMap<>();
+                totalsFromGroups(rows, CUSTOMERS_TOTAL, CUSTOMERS_STATUS, userRepository.countByStatusForRole(Role.ROLE_CUSTOMER));
+                periodicFromDays(rows, CUSTOMERS_JOINED, userRepository.countJoinedPerDay(Role.ROLE_CUSTOMER));
+                totalsFromGroups(rows, INTERACTIONS_TOTAL, INTERACTIONS_TYPE, interactionRepository.countAllByType());
+                totalsFromGroups(rows, null, INTERACTIONS_STATUS, interactionRepository.countAllByStatus());
+                periodicFromDays(rows, INTERACTIONS_CREATED, interactionRepository.countAllPerDay());
+                totalsFromGroups(rows, CAMPAIGNS_TOTAL, CAMPAIGNS_STATUS, customerCampaignRepository.countAllByStatus());
+                periodicFromDays(rows, CAMPAIGNS_SUBMITTED, customerCampaignRepository.countSubmittedPerDay());
+                periodicFromDays(rows, CAMPAIGNS_APPROVED, customerCampaignRepository.countApprovedPerDay());
+
+                for (String prefix : List.of(CUSTOMERS_STATUS, INTERACTIONS_TYPE, INTERACTIONS_STATUS, CAMPAIGNS_STATUS)) {
+                    analyticsRollupRepository.deleteByMetricPrefix(prefix);
+                }
+                analyticsRollupRepository.deleteByMetrics(List.of(CUSTOMERS_TOTAL, CUSTOMERS_JOINED, INTERACTIONS_TOTAL,
+                        INTERACTIONS_CREATED, CAMPAIGNS_TOTAL, CAMPAIGNS_SUBMITTED, CAMPAIGNS_APPROVED));
+                // persist() rather than save(): ids are assigned, so save() would SELECT each row first
+                rows.forEach((key, value) -> entityManager.persist(new AnalyticsRollup(key, value)));
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // ---- Helpers ----
+
+    private Map<RollupKey, LongAdder> swapPending() {
+        pendingLock.writeLock().lock();
+        try {
+            Map<RollupKey, LongAdder> batch = pending;
+            pending = new ConcurrentHashMap<>();
+            return batch;
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Map<RollupKey, Long> deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            buffer(deltas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                buffer(deltas);
+            }
+        });
+    }
+
+    private void buffer(Map<RollupKey, Long> deltas) {
+        pendingLock.readLock().lock();
+        try {
+            deltas.forEach((key, delta) -> pending.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    private static void total(Map<RollupKey, Long> deltas, String metric, long delta) {
+        deltas.merge(new RollupKey(Granularity.TOTAL, AnalyticsRollup.ALL_TIME, metric), delta, Long::sum);
+    }
+
+    // Counts the event in its day, its month and the all-time total
+    private static void periodic(Map<RollupKey, Long> deltas, String metric, LocalDateTime at, long delta) {
+        total(deltas, metric, delta);
+        if (at == null) {
+            return;
+        }
+        LocalDate day = at.toLocalDate();
+        deltas.merge(new RollupKey(Granularity.DAY, day, metric), delta, Long::sum);
+        deltas.merge(new RollupKey(Granularity.MONTH, day.withDayOfMonth(1), metric), delta, Long::sum);
+    }
+
+    private static void totalsFromGroups(Map<RollupKey, Long> rows, String totalMetric, String groupPrefix, List<Object[]> groups) {
+        for (Object[] group : groups) {
+            long count = ((Number) group[1]).longValue();
+            if (totalMetric != null) {
+                total(rows, totalMetric, count);
+            }
+            total(rows, groupPrefix + group[0], count);
+        }
+    }
+
+    private static void periodicFromDays(Map<RollupKey, Long> rows, String metric, List<Object[]> days) {
+        for (Object[] day : days) {
+            periodic(rows, metric, toLocalDate(day[0]).atStartOfDay(), ((Number) day[1]).longValue());
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return new java.sql.Date(((java.util.Date) value).getTime()).toLocalDate();
+    }
+}
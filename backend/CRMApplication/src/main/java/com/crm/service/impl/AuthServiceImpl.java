@@ -4,23 +4,40 @@ import com.crm.dto.AuthRequest;
 import com.crm.dto.AuthResponse;
 import com.crm.dto.UserDto;
 import com.crm.exception.ResourceNotFoundException;
+import com.crm.model.RefreshToken;
 import com.crm.model.Role;
 import com.crm.model.User;
 import com.crm.model.User.UserStatus;
+import com.crm.repository.RefreshTokenRepository;
 import com.crm.repository.UserRepository;
 import com.crm.security.JwtUtil;
+import com.crm.security.LoginThrottle;
+import com.crm.service.AnalyticsRollupService;
 import com.crm.service.AuthService;
 import com.crm.service.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
 
 @Service
 public class AuthServiceImpl implements AuthService {
@@ -30,13 +47,31 @@ public class AuthServiceImpl implements AuthService {
     @Autowired private AuthenticationManager authenticationManager;
     @Autowired private JwtUtil jwtUtil;
     @Autowired private EmailService emailService;
+    @Autowired private AnalyticsRollupService analyticsRollupService;
+    @Autowired private LoginThrottle loginThrottle;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Value("${jwt.refresh.expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.refresh.reuse-grace-ms:10000}")
+    private long refreshReuseGraceMs;
 
     @Override
     public User registerUser(UserDto userDto) {
+        // Hashed before the transaction opens, so no pooled connection is held during the BCrypt work
+        String passwordHash = passwordEncoder.encode(userDto.getPassword());
+        return new TransactionTemplate(transactionManager).execute(status -> saveNewCustomer(userDto, passwordHash));
+    }
+
+    private User saveNewCustomer(UserDto userDto, String passwordHash) {
         User user = new User();
         user.setUsername(userDto.getUsername());
         user.setEmail(userDto.getEmail());
-        user.setPassword(passwordEncoder.encode(userDto.getPassword()));
+        user.setPassword(passwordHash);
         user.setAge(userDto.getAge());
         user.setAdharCard(userDto.getAdharCard());
         user.setAddress(userDto.getAddress());
@@ -45,8 +80,9 @@ public class AuthServiceImpl implements AuthService {
         user.setJoinDate(LocalDateTime.now());
         
         User savedUser = userRepository.save(user);
+        analyticsRollupService.customerJoined(savedUser.getJoinDate(), savedUser.getStatus());
 
-        // Send confirmation email
+        // Queued in the outbox; committed together with the new user
         emailService.sendSimpleMessage(
             savedUser.getEmail(), 
             "Registration Confirmation", 
@@ -57,19 +93,27 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public AuthResponse login(AuthRequest authRequest) {
+    public AuthResponse login(AuthRequest authRequest, String clientAddress) {
+        // Rejected before the password is hashed, so throttled attempts cost no BCrypt time
+        loginThrottle.checkAllowed(authRequest.getUsername(), clientAddress);
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())
             );
         } catch (DisabledException e) {
             throw new BadCredentialsException("Your account is not yet active. Please wait for admin approval.");
         } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(authRequest.getUsername());
             throw new BadCredentialsException("Invalid username or password");
         }
+        loginThrottle.recordSuccess(authRequest.getUsername());
 
-        User user = userRepository.findByUsername(authRequest.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        // The provider already loaded the user; reuse it instead of a second findByUsername
+        User user = authentication.getPrincipal() instanceof User principal
+                ? principal
+                : userRepository.findByUsername(authRequest.getUsername())
+                        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         // Final check for role (optional, but good practice)
         String requestedRole = "ROLE_" + authRequest.getRole().toUpperCase();
@@ -80,6 +124,76 @@ public class AuthServiceImpl implements AuthService {
         final UserDetails userDetails = user;
         final String token = jwtUtil.generateToken(userDetails);
 
-        return new AuthResponse(token, user.getId());
+        return new AuthResponse(token, user.getId(), issueRefreshToken(user, UUID.randomUUID().toString()));
+    }
+
+    @Override
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new BadCredentialsException("Refresh token is required");
+        }
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hashRefreshToken(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+
+        User user = current.getUser();
+        if (user.getStatus() != UserStatus.ACTIVE) {
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            throw new BadCredentialsException("Your account is not active.");
+        }
+
+        boolean rotated = current.getRotatedAt() == null && refreshTokenRepository.markRotated(current.getId(), now) == 1;
+        if (!rotated) {
+            // Already exchanged: tolerate a concurrent refresh from the same client, otherwise treat it as replayed
+            LocalDateTime rotatedAt = current.getRotatedAt() != null ? current.getRotatedAt() : now;
+            if (rotatedAt.plusNanos(refreshReuseGraceMs * 1_000_000).isBefore(now)) {
+                refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+                throw new BadCredentialsException("Refresh token has already been used");
+            }
+        }
+
+        return new AuthResponse(jwtUtil.generateToken(user), user.getId(), issueRefreshToken(user, current.getFamilyId()));
+    }
+
+    @Override
+    public void logout(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHashWithUser(hashRefreshToken(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    @Scheduled(cron = "${jwt.refresh.cleanup-cron:0 30 3 * * *}")
+    public void purgeExpiredRefreshTokens() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    // Refresh tokens are 256 random bits, so a plain SHA-256 is enough to keep the stored value useless
+    private String issueRefreshToken(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hashRefreshToken(token));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String hashRefreshToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
\ No newline at end of file
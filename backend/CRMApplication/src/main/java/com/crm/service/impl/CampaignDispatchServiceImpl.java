@@ -0,0 +1,197 @@
+package com.crm.service.impl;
+
+import com.crm.cache.CacheInvalidationService;
+import com.crm.cache.CacheRegions;
+import com.crm.dto.CampaignRecipient;
+import com.crm.exception.ResourceNotFoundException;
+import com.crm.model.EmailCampaign;
+import com.crm.model.Role;
+import com.crm.model.User.UserStatus;
+import com.crm.repository.EmailCampaignRepository;
+import com.crm.repository.UserRepository;
+import com.crm.service.CampaignDispatchService;
+import com.crm.settings.SystemSettings;
+import com.crm.settings.SystemSettingsHolder;
+import com.crm.template.EmailTemplate;
+import com.crm.template.EmailTemplateRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class CampaignDispatchServiceImpl implements CampaignDispatchService {
+
+    @Autowired private EmailCampaignRepository emailCampaignRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JavaMailSender emailSender;
+    @Autowired private SmtpTransportPool transportPool;
+    @Autowired private EmailTemplateRegistry emailTemplateRegistry;
+    @Autowired @Qualifier("campaignExecutor") private ThreadPoolTaskExecutor campaignExecutor;
+    @Autowired @Qualifier("campaignSendExecutor") private ThreadPoolTaskExecutor campaignSendExecutor;
+    @Autowired private CacheInvalidationService cacheInvalidationService;
+    @Autowired private SystemSettingsHolder systemSettingsHolder;
+
+    @Value("${campaign.dispatch.chunk-size:500}")
+    private int chunkSize;
+    @Value("${campaign.dispatch.rate-per-second:20}")
+    private double ratePerSecond;
+    @Value("${campaign.dispatch.lease-ms:120000}")
+    private long leaseMs;
+
+    @Override
+    public EmailCampaign startDispatch(Long campaignId) {
+        EmailCampaign campaign = emailCampaignRepository.findById(campaignId)
+                .orElseThrow(() -> new ResourceNotFoundException("Email Campaign not found: " + campaignId));
+        if (campaign.getBody() == null || campaign.getBody().isBlank()) {
+            throw new IllegalArgumentException("Campaign has no message body.");
+        }
+        int recipients = (int) userRepository.countByRoleAndStatus(Role.ROLE_CUSTOMER, UserStatus.ACTIVE);
+        LocalDateTime lease = leaseUntil(LocalDateTime.now());
+        if (emailCampaignRepository.claimDispatch(campaignId, lease, recipients) == 0) {
+            throw new IllegalArgumentException("Campaign has already been sent or is being sent.");
+        }
+        cacheInvalidationService.markDirty(CacheRegions.CAMPAIGNS);
+        campaignExecutor.execute(() -> dispatch(campaignId, lease));
+        return emailCampaignRepository.findById(campaignId).orElseThrow();
+    }
+
+    /**
+     * Picks up dispatches whose worker stopped renewing its lease, e.g. after a crash or restart.
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${campaign.dispatch.lease-ms:120000}")
+    public void resumeInterruptedDispatches() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long campaignId : emailCampaignRepository.findInterruptedDispatchIds(now)) {
+            LocalDateTime lease = leaseUntil(now);
+            if (emailCampaignRepository.resumeDispatch(campaignId, now, lease) == 1) {
+                cacheInvalidationService.markDirty(CacheRegions.CAMPAIGNS);
+                System.out.println("Resuming interrupted dispatch of campaign " + campaignId);
+                campaignExecutor.execute(() -> dispatch(campaignId, lease));
+            }
+        }
+    }
+
+    /**
+     * Sends the campaign chunk by chunk from its last checkpoint.
+     * @param lease The lease value this worker wrote when it claimed or resumed the campaign.
+     */
+    void dispatch(Long campaignId, LocalDateTime lease) {
+        EmailCampaign campaign = emailCampaignRepository.findById(campaignId).orElse(null);
+        if (campaign == null) {
+            return;
+        }
+        RateLimiter rateLimiter = new RateLimiter(ratePerSecond);
+        // Parsed once per dispatch, rendered per recipient
+        EmailTemplate template = EmailTemplate.compile("campaign-" + campaignId, campaign.getBody(), true);
+        long lastRecipientId = campaign.getLastRecipientId() == null ? 0L : campaign.getLastRecipientId();
+        AtomicReference<LocalDateTime> currentLease = new AtomicReference<>(lease);
+        try {
+            while (true) {
+                List<CampaignRecipient> chunk = userRepository.findCampaignRecipients(
+                        Role.ROLE_CUSTOMER, UserStatus.ACTIVE, lastRecipientId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                int sent = sendChunk(campaign, template, chunk, rateLimiter, currentLease);
+                long chunkEnd = chunk.get(chunk.size() - 1).getId();
+                LocalDateTime renewed = leaseUntil(LocalDateTime.now());
+                if (sent < 0 || emailCampaignRepository.checkpoint(campaignId, lastRecipientId, chunkEnd, sent,
+                        chunk.size() - sent, renewed) == 0) {
+                    // Lease ran out and resumeInterruptedDispatches handed the campaign to another worker
+                    System.err.println("Dispatch of campaign " + campaignId + " was taken over by another worker; stopping.");
+                    return;
+                }
+                currentLease.set(renewed);
+                lastRecipientId = chunkEnd;
+                // Bulk updates evict the campaigns region locally only; other nodes learn of it on their next poll
+                cacheInvalidationService.markDirty(CacheRegions.CAMPAIGNS);
+            }
+            if (emailCampaignRepository.completeDispatch(campaignId, lastRecipientId, LocalDateTime.now()) == 0) {
+                System.err.println("Dispatch of campaign " + campaignId + " was taken over by another worker; stopping.");
+                return;
+            }
+            cacheInvalidationService.markDirty(CacheRegions.CAMPAIGNS);
+        } catch (Exception e) {
+            // The lease runs out and resumeInterruptedDispatches retries from the last checkpoint
+            System.err.println("Dispatch of campaign " + campaignId + " interrupted: " + e.getMessage());
+        }
+    }
+
+    // Splits the chunk across the pooled transports and waits for all slices to finish, renewing the lease
+    // every third of its length. Returns -1, after cancelling the slices, if the lease was lost.
+    private int sendChunk(EmailCampaign campaign, EmailTemplate template, List<CampaignRecipient> chunk,
+                          RateLimiter rateLimiter, AtomicReference<LocalDateTime> lease) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>(chunk.size());
+        for (CampaignRecipient recipient : chunk) {
+            messages.add(render(campaign, template, recipient));
+        }
+        int slices = Math.min(transportPool.size(), messages.size());
+        int sliceSize = (messages.size() + slices - 1) / slices;
+        List<Future<Integer>> results = new ArrayList<>(slices);
+        for (int from = 0; from < messages.size(); from += sliceSize) {
+            List<MimeMessage> slice = messages.subList(from, Math.min(from + sliceSize, messages.size()));
+            results.add(campaignSendExecutor.submit(() -> transportPool.send(slice, rateLimiter)));
+        }
+        long renewEveryNanos = TimeUnit.MILLISECONDS.toNanos(leaseMs / 3);
+        long nextRenewal = System.nanoTime() + renewEveryNanos;
+        int sent = 0;
+        for (Future<Integer> result : results) {
+            while (true) {
+                try {
+                    sent += result.get(Math.max(0, nextRenewal - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    LocalDateTime renewed = leaseUntil(LocalDateTime.now());
+                    if (emailCampaignRepository.renewLease(campaign.getId(), lease.get(), renewed) == 0) {
+                        results.forEach(slice -> slice.cancel(true));
+                        return -1;
+                    }
+                    lease.set(renewed);
+                    nextRenewal = System.nanoTime() + renewEveryNanos;
+                }
+            }
+        }
+        return sent;
+    }
+
+    private MimeMessage render(EmailCampaign campaign, EmailTemplate template, CampaignRecipient recipient) throws MessagingException {
+        SystemSettings settings = systemSettingsHolder.current();
+        String body = emailTemplateRegistry.render(template, Map.of(
+                "username", recipient.getUsername(),
+                "email", recipient.getEmail(),
+                "companyName", settings.getCompanyName() == null ? "" : settings.getCompanyName()));
+        MimeMessage message = emailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom(EmailOutboxWorker.FROM_ADDRESS);
+        if (settings.getSupportEmail() != null) {
+            helper.setReplyTo(settings.getSupportEmail());
+        }
+        helper.setTo(recipient.getEmail());
+        helper.setSubject(campaign.getSubject());
+        helper.setText(body, true);
+        return message;
+    }
+
+    // Whole milliseconds, so the stored value compares equal to the one renewLease fences on
+    private LocalDateTime leaseUntil(LocalDateTime now) {
+        return now.plusNanos(leaseMs * 1_000_000).truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,118 @@
+package com.crm.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-customer cache of the customer dashboard snapshot. Entries are evicted by the write
+ * paths that change a customer's interactions or campaigns, and expire after a TTL so the
+ * 30-day interaction trend rolls over.
+ */
+@Component
+public class CustomerAnalyticsCache {
+
+    @Value("${analytics.customer-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${analytics.customer-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every eviction; a snapshot computed across an eviction is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Returns the cached snapshot for a customer, computing it on a miss.
+     * @param customerId The customer id.
+     * @param loader Builds the snapshot from the database.
+     * @return The analytics snapshot.
+     */
+    public Map<String, Object> get(Long customerId, Supplier<Map<String, Object>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(customerId);
+        if (entry != null && now - entry.loadedAt <= ttlMillis) {
+            hits.increment();
+            return entry.snapshot;
+        }
+        misses.increment();
+        long startGeneration = generation.get();
+        Map<String, Object> snapshot = loader.get();
+        if (generation.get() == startGeneration) {
+            if (entries.size() >= maxSize) {
+                trim(now);
+            }
+            entries.put(customerId, new Entry(snapshot, now));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot of a customer whose data changed. Inside a transaction the entry is
+     * dropped again after commit, so a read racing the write cannot keep the old numbers.
+     * @param customerId The customer whose interactions or campaigns changed.
+     */
+    public void evict(Long customerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(customerId);
+                }
+            });
+        }
+        remove(customerId);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    private void remove(Long customerId) {
+        generation.incrementAndGet();
+        if (entries.remove(customerId) != null) {
+            evictions.increment();
+        }
+    }
+
+    // Drops expired snapshots first; if the cache is still full, trims it back to 90% of its capacity.
+    private void trim(long now) {
+        entries.values().removeIf(entry -> now - entry.loadedAt > ttlMillis);
+        int target = (int) (maxSize * 0.9);
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final Map<String, Object> snapshot;
+        private final long loadedAt;
+
+        private Entry(Map<String, Object> snapshot, long loadedAt) {
+            this.snapshot = snapshot;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
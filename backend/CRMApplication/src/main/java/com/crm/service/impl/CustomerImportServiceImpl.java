@@ -0,0 +1,524 @@
+package com.crm.service.impl;
+
+import com.crm.exception.ResourceNotFoundException;
+import com.crm.export.ExportColumn;
+import com.crm.export.ExportFormat;
+import com.crm.export.RowWriter;
+import com.crm.model.CustomerImportError;
+import com.crm.model.CustomerImportJob;
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.crm.model.User.UserStatus;
+import com.crm.repository.CustomerImportErrorRepository;
+import com.crm.repository.CustomerImportJobRepository;
+import com.crm.repository.UserRepository;
+import com.crm.security.BoundedPasswordEncoder;
+import com.crm.service.AnalyticsRollupService;
+import com.crm.service.CustomerImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Bulk customer import. Uploads are spooled to customers.import.spool-dir and processed by
+ * customerImportExecutor in batches of customers.import.batch-size records:
+ * <ol>
+ *     <li>records are parsed and validated, and duplicates within the batch are rejected;</li>
+ *     <li>passwords are hashed in parallel on customerImportHashExecutor;</li>
+ *     <li>one transaction checks usernames and emails against the table with two IN queries,
+ *     inserts the new customers in JDBC batches, stores the error rows and checkpoints the job.</li>
+ * </ol>
+ * A username or email taken between the check and the insert rolls the batch back and it is
+ * checked again. Jobs hold a lease that every checkpoint renews; a job whose worker dies is
+ * resumed from its checkpoint by {@link #resumeInterruptedJobs()}.
+ */
+@Service
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    // BCrypt only uses the first 72 bytes of a password
+    private static final int MAX_PASSWORD_BYTES = 72;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final List<ExportColumn<CustomerImportError>> ERROR_COLUMNS = List.of(
+            new ExportColumn<>("index", CustomerImportError::getRecordIndex),
+            new ExportColumn<>("kind", CustomerImportError::getKind),
+            new ExportColumn<>("message", CustomerImportError::getMessage));
+
+    @Autowired private CustomerImportJobRepository jobRepository;
+    @Autowired private CustomerImportErrorRepository errorRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AnalyticsRollupService analyticsRollupService;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired @Qualifier("customerImportExecutor") private ThreadPoolTaskExecutor importExecutor;
+    @Autowired @Qualifier("customerImportHashExecutor") private ThreadPoolTaskExecutor hashExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${customers.import.batch-size:500}")
+    private int batchSize;
+    @Value("${customers.import.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+    @Value("${customers.import.max-bytes:104857600}")
+    private long maxBytes;
+    @Value("${customers.import.lease-ms:120000}")
+    private long leaseMs;
+    @Value("${customers.import.spool-dir:${java.io.tmpdir}/crm-customer-imports}")
+    private String spoolDir;
+
+    // Hashing runs on our own pool, so skip the login pool the shared encoder would queue on
+    private PasswordEncoder hasher;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(Paths.get(spoolDir));
+        hasher = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.getDelegate() : passwordEncoder;
+    }
+
+    @Override
+    public CustomerImportJob submit(ExportFormat format, String fileName, InputStream body) throws IOException {
+        Path upload = Files.createTempFile(Paths.get(spoolDir), "upload-", ".part");
+        long size;
+        try {
+            size = spool(body, upload);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        CustomerImportJob job = new CustomerImportJob();
+        job.setStatus(CustomerImportJob.Status.QUEUED);
+        job.setFormat(format);
+        job.setFileName(fileName);
+        job.setTotalBytes(size);
+        job.setLeaseUntil(leaseUntil(LocalDateTime.now()));
+        job = jobRepository.save(job);
+        Files.move(upload, spoolFile(job.getId()), StandardCopyOption.REPLACE_EXISTING);
+
+        Long jobId = job.getId();
+        try {
+            importExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            // Stays queued; picked up by resumeInterruptedJobs once its lease runs out
+        }
+        return job;
+    }
+
+    @Override
+    public CustomerImportJob getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer import job not found: " + jobId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long writeErrorReport(Long jobId, ExportFormat format, OutputStream out) throws IOException {
+        RowWriter<CustomerImportError> writer = RowWriter.create(format, ERROR_COLUMNS, out, objectMapper);
+        long count = 0;
+        try (Stream<CustomerImportError> rows = errorRepository.streamByJobId(jobId)) {
+            Iterator<CustomerImportError> it = rows.iterator();
+            while (it.hasNext()) {
+                writer.write(it.next());
+                if (++count % batchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Picks up jobs whose worker stopped renewing its lease, e.g. after a crash or restart.
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${customers.import.lease-ms:120000}")
+    public void resumeInterruptedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long jobId : jobRepository.findInterruptedIds(now)) {
+            if (jobRepository.claim(jobId, now, leaseUntil(now)) == 1) {
+                System.out.println("Resuming interrupted customer import " + jobId);
+                importExecutor.execute(() -> run(jobId));
+            }
+        }
+    }
+
+    void run(Long jobId) {
+        CustomerImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.isFinished()) {
+            return;
+        }
+        Path file = spoolFile(jobId);
+        if (!Files.exists(file)) {
+            finish(jobId, CustomerImportJob.Status.FAILED, "The uploaded file is no longer available.");
+            return;
+        }
+        jobRepository.markRunning(jobId, LocalDateTime.now());
+
+        long index = 0;
+        String fatalError = null;
+        try (CustomerRecordReader reader = CustomerRecordReader.open(job.getFormat(), Files.newInputStream(file), objectMapper)) {
+            // Records up to the checkpoint are already imported or reported
+            for (; index < job.getRecordsRead(); index++) {
+                try {
+                    if (reader.next() == null) {
+                        break;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Reported before the restart
+                }
+            }
+            while (fatalError == null) {
+                Batch batch = new Batch(index);
+                try {
+                    while (batch.size() < batchSize && batch.add(reader)) {
+                        // Filled record by record
+                    }
+                } catch (IOException e) {
+                    String reason = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+                    fatalError = "Could not read the file after record " + (index + batch.size()) + ": " + reason;
+                }
+                if (batch.size() == 0) {
+                    break;
+                }
+                hashPasswords(batch.valid);
+                save(jobId, batch, reader.bytesRead());
+                index += batch.size();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            fatalError = "Could not read the file: " + e.getMessage();
+        } catch (Exception e) {
+            // The lease runs out and resumeInterruptedJobs retries from the last checkpoint
+            System.err.println("Customer import " + jobId + " interrupted: " + e.getMessage());
+            return;
+        }
+        finish(jobId, fatalError == null ? CustomerImportJob.Status.COMPLETED : CustomerImportJob.Status.FAILED, fatalError);
+    }
+
+    private void finish(Long jobId, CustomerImportJob.Status status, String error) {
+        jobRepository.finish(jobId, status, error, LocalDateTime.now());
+        try {
+            // The spool holds plain-text passwords; keep it no longer than the job needs it
+            Files.deleteIfExists(spoolFile(jobId));
+        } catch (IOException e) {
+            System.err.println("Could not delete the upload of customer import " + jobId + ": " + e.getMessage());
+        }
+    }
+
+    private void hashPasswords(List<PendingCustomer> valid) throws Exception {
+        List<Future<?>> hashes = new ArrayList<>(valid.size());
+        for (PendingCustomer pending : valid) {
+            hashes.add(hashExecutor.submit(() -> {
+                pending.passwordHash = hasher.encode(pending.password);
+                pending.password = null;
+            }));
+        }
+        for (Future<?> hash : hashes) {
+            hash.get();
+        }
+    }
+
+    private void save(Long jobId, Batch batch, long bytesRead) {
+        for (int attempt = 1; ; attempt++) {
+            boolean insert = attempt <= MAX_ATTEMPTS;
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> write(jobId, batch, bytesRead, insert));
+                return;
+            } catch (RuntimeException e) {
+                if (!insert || !isConstraintViolation(e)) {
+                    throw e;
+                }
+                // A username or email was taken after the pre-check; the retry's check will see it
+                System.err.println("Customer import " + jobId + " batch at record " + batch.firstIndex
+                        + " hit a uniqueness conflict (attempt " + attempt + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes one batch and its checkpoint in the caller's transaction.
+     * @param insert False once retries are used up: every valid record is then reported as failed.
+     */
+    private void write(Long jobId, Batch batch, long bytesRead, boolean insert) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        List<CustomerImportError> errors = new ArrayList<>();
+        batch.rejected.forEach((index, message) ->
+                errors.add(new CustomerImportError(jobId, index, CustomerImportError.Kind.REJECTED, message)));
+        long created = 0;
+        long failed = 0;
+
+        if (insert && !batch.valid.isEmpty()) {
+            Set<String> usernames = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            batch.valid.forEach(pending -> {
+                usernames.add(pending.username);
+                emails.add(pending.email);
+            });
+            Set<String> takenUsernames = lowerCase(userRepository.findExistingUsernames(usernames));
+            Set<String> takenEmails = lowerCase(userRepository.findExistingEmails(emails));
+            LocalDateTime now = LocalDateTime.now();
+            for (PendingCustomer pending : batch.valid) {
+                if (takenUsernames.contains(key(pending.username))) {
+                    errors.add(new CustomerImportError(jobId, pending.index, CustomerImportError.Kind.REJECTED,
+                            "Username already exists: " + pending.username));
+                } else if (takenEmails.contains(key(pending.email))) {
+                    errors.add(new CustomerImportError(jobId, pending.index, CustomerImportError.Kind.REJECTED,
+                            "Email already exists: " + pending.email));
+                } else {
+                    User user = pending.toUser(now);
+                    entityManager.persist(user);
+                    analyticsRollupService.customerJoined(user.getJoinDate(), user.getStatus());
+                    created++;
+                }
+            }
+        } else if (!insert) {
+            for (PendingCustomer pending : batch.valid) {
+                errors.add(new CustomerImportError(jobId, pending.index, CustomerImportError.Kind.FAILED,
+                        "Could not be saved: the username or email kept conflicting with concurrent sign-ups."));
+                failed++;
+            }
+        }
+        errors.forEach(entityManager::persist);
+        long rejected = errors.size() - failed;
+
+        if (jobRepository.checkpoint(jobId, batch.firstIndex, batch.firstIndex + batch.size(), bytesRead,
+                created, rejected, failed, leaseUntil(LocalDateTime.now())) == 0) {
+            throw new IllegalStateException("Customer import " + jobId + " was advanced by another worker.");
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Turns one record into a customer waiting for its password hash.
+     * @throws IllegalArgumentException with a client-facing message if the record is invalid.
+     */
+    private PendingCustomer parse(long index, JsonNode record) {
+        if (!record.isObject()) {
+            throw new IllegalArgumentException("Record must be a JSON object.");
+        }
+        PendingCustomer pending = new PendingCustomer(index);
+        pending.username = text(record, "username");
+        if (pending.username == null) {
+            throw new IllegalArgumentException("username is required.");
+        }
+        pending.email = text(record, "email");
+        if (pending.email == null || !EMAIL.matcher(pending.email).matches()) {
+            throw new IllegalArgumentException("email is required and must be a valid address.");
+        }
+        JsonNode password = record.path("password");
+        if (!password.isTextual() || password.asText().isEmpty()) {
+            throw new IllegalArgumentException("password is required.");
+        }
+        if (password.asText().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            throw new IllegalArgumentException("password must be at most " + MAX_PASSWORD_BYTES + " bytes.");
+        }
+        pending.password = password.asText();
+        String age = text(record, "age");
+        if (age != null) {
+            try {
+                pending.age = Integer.parseInt(age);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("age must be a whole number.");
+            }
+            if (pending.age < 0 || pending.age > 150) {
+                throw new IllegalArgumentException("age must be between 0 and 150.");
+            }
+        }
+        pending.phone = text(record, "phone");
+        pending.address = text(record, "address");
+        pending.adharCard = text(record, "adharCard");
+        return pending;
+    }
+
+    private static String text(JsonNode record, String field) {
+        JsonNode node = record.path(field);
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        if (!node.isValueNode()) {
+            throw new IllegalArgumentException(field + " must be a string.");
+        }
+        String value = node.asText().trim();
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(field + " must be at most " + MAX_TEXT_LENGTH + " characters.");
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    // MySQL's default collation compares usernames and emails case-insensitively
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> lowerCase(List<String> values) {
+        Set<String> keys = new HashSet<>(values.size());
+        values.forEach(value -> keys.add(key(value)));
+        return keys;
+    }
+
+    private Path spoolFile(Long jobId) {
+        return Paths.get(spoolDir, "customer-import-" + jobId);
+    }
+
+    private long spool(InputStream body, Path target) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                size += n;
+                if (size > maxBytes) {
+                    throw new IllegalArgumentException("The file is larger than " + maxBytes + " bytes; split it into several imports.");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return size;
+    }
+
+    private LocalDateTime leaseUntil(LocalDateTime now) {
+        return now.plusNanos(leaseMs * 1_000_000);
+    }
+
+    private static final class PendingCustomer {
+        private final long index;
+        private String username;
+        private String email;
+        private String password;
+        private String passwordHash;
+        private Integer age;
+        private String phone;
+        private String address;
+        private String adharCard;
+
+        PendingCustomer(long index) {
+            this.index = index;
+        }
+
+        // A new entity per attempt: a rolled-back persist leaves its id on the old one
+        User toUser(LocalDateTime joinDate) {
+            User user = new User();
+            user.setUsername(username);
+            user.setEmail(email);
+            user.setPassword(passwordHash);
+            user.setAge(age);
+            user.setPhone(phone);
+            user.setAddress(address);
+            user.setAdharCard(adharCard);
+            user.setRole(Role.ROLE_CUSTOMER);
+            user.setStatus(UserStatus.ACTIVE);
+            user.setJoinDate(joinDate);
+            return user;
+        }
+    }
+
+    private final class Batch {
+        private final long firstIndex;
+        private final List<PendingCustomer> valid = new ArrayList<>();
+        private final Map<Long, String> rejected = new HashMap<>();
+        // First record in this batch to use each username / email, for in-file duplicates
+        private final Map<String, Long> usernames = new HashMap<>();
+        private final Map<String, Long> emails = new HashMap<>();
+        private int size;
+
+        Batch(long firstIndex) {
+            this.firstIndex = firstIndex;
+        }
+
+        /**
+         * Reads and sorts the next record.
+         * @return False at the end of the file.
+         */
+        boolean add(CustomerRecordReader reader) throws IOException {
+            long index = firstIndex + size;
+            JsonNode record;
+            try {
+                record = reader.next();
+            } catch (IllegalArgumentException e) {
+                // The reader consumed a record it could not turn into an object
+                size++;
+                rejected.put(index, e.getMessage());
+                return true;
+            }
+            if (record == null) {
+                return false;
+            }
+            size++;
+            try {
+                PendingCustomer pending = parse(index, record);
+                Long sameUsername = usernames.get(key(pending.username));
+                if (sameUsername != null) {
+                    throw new IllegalArgumentException("Username is also used by record " + sameUsername + " of this file.");
+                }
+                Long sameEmail = emails.get(key(pending.email));
+                if (sameEmail != null) {
+                    throw new IllegalArgumentException("Email is also used by record " + sameEmail + " of this file.");
+                }
+                usernames.put(key(pending.username), index);
+                emails.put(key(pending.email), index);
+                valid.add(pending);
+            } catch (IllegalArgumentException e) {
+                rejected.put(index, e.getMessage());
+            }
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.crm.service.impl;
+
+import com.crm.export.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an uploaded customer file one record at a time, as JSON objects. CSV rows become objects
+ * keyed by the header row, with every value as text; NDJSON (or a single JSON array) is read as is.
+ */
+abstract class CustomerRecordReader implements Closeable {
+
+    private final CountingInputStream in;
+
+    private CustomerRecordReader(InputStream in) {
+        this.in = new CountingInputStream(in);
+    }
+
+    static CustomerRecordReader open(ExportFormat format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        return format == ExportFormat.CSV ? new Csv(in) : new Ndjson(in, objectMapper);
+    }
+
+    /**
+     * @return The next record, or null at the end of the file.
+     * @throws IllegalArgumentException if the record is unusable; it has been consumed, so reading can go on.
+     * @throws IOException if the rest of the file cannot be read.
+     */
+    abstract JsonNode next() throws IOException;
+
+    /**
+     * Bytes consumed from the file so far. Runs ahead of the last returned record by up to one read buffer.
+     */
+    long bytesRead() {
+        return in.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static final class Ndjson extends CustomerRecordReader {
+
+        private final MappingIterator<JsonNode> records;
+
+        Ndjson(InputStream in, ObjectMapper objectMapper) throws IOException {
+            super(in);
+            // readValues iterates root-level values, or the elements when the file is one JSON array
+            this.records = objectMapper.readerFor(JsonNode.class).readValues(super.in);
+        }
+
+        @Override
+        JsonNode next() throws IOException {
+            return records.hasNextValue() ? records.nextValue() : null;
+        }
+    }
+
+    private static final class Csv extends CustomerRecordReader {
+
+        private final BufferedReader reader;
+        private final List<String> header;
+
+        Csv(InputStream in) throws IOException {
+            super(in);
+            this.reader = new BufferedReader(new InputStreamReader(super.in, StandardCharsets.UTF_8), 64 * 1024);
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') {
+                reader.reset();
+            }
+            List<String> names = readRow();
+            if (names == null) {
+                throw new IOException("The CSV file is empty; the first row must name the columns.");
+            }
+            this.header = new ArrayList<>(names.size());
+            names.forEach(name -> header.add(name.trim()));
+        }
+
+        @Override
+        JsonNode next() throws IOException {
+            List<String> fields = readRow();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() > header.size()) {
+                throw new IllegalArgumentException("Row has " + fields.size() + " fields but the header names " + header.size() + " columns.");
+            }
+            ObjectNode record = JsonNodeFactory.instance.objectNode();
+            for (int i = 0; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    record.put(header.get(i), fields.get(i));
+                }
+            }
+            return record;
+        }
+
+        // One RFC 4180 row; quoted fields may span lines. Blank lines are skipped.
+        private List<String> readRow() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean empty = true;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (quoted) {
+                    if (c != '"') {
+                        field.append((char) c);
+                        continue;
+                    }
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                    empty = false;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    empty = false;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    if (!empty || !field.isEmpty()) {
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                } else {
+                    field.append((char) c);
+                    empty = false;
+                }
+            }
+            if (quoted) {
+                throw new IOException("The CSV file ends inside a quoted field.");
+            }
+            if (empty && field.isEmpty()) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
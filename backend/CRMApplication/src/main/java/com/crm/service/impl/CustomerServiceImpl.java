@@ -1,5 +1,10 @@
 package com.crm.service.impl;
 
+import com.crm.dto.CampaignCounts;
+import com.crm.dto.Cursor;
+import com.crm.dto.CursorPage;
+import com.crm.dto.CustomerCampaignView;
+import com.crm.dto.InteractionView;
 import com.crm.exception.ResourceNotFoundException;
 import com.crm.model.CustomerCampaign;
 import com.crm.model.EmailCampaign;
@@ -8,20 +13,32 @@ import com.crm.model.User;
 import com.crm.repository.CustomerCampaignRepository;
 import com.crm.repository.EmailCampaignRepository;
 import com.crm.repository.InteractionRepository;
+import com.crm.repository.RefreshTokenRepository;
 import com.crm.repository.UserRepository;
+import com.crm.search.InteractionSearchIndex;
+import com.crm.service.AnalyticsRollupService;
 import com.crm.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,7 +49,12 @@ public class CustomerServiceImpl implements CustomerService {
     @Autowired private InteractionRepository interactionRepository;
     @Autowired private EmailCampaignRepository emailCampaignRepository;
     @Autowired private CustomerCampaignRepository customerCampaignRepository;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
     @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private InteractionSearchIndex interactionSearchIndex;
+    @Autowired private AnalyticsRollupService analyticsRollupService;
+    @Autowired private CustomerAnalyticsCache customerAnalyticsCache;
+    @Autowired private PlatformTransactionManager transactionManager;
 
     @Override
     public User findUserByUsername(String username) {
@@ -56,34 +78,48 @@ public class CustomerServiceImpl implements CustomerService {
         return userRepository.save(customer);
     }
 
+    // Hashes before the transaction opens, so no pooled connection is held during the BCrypt work
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(Long customerId, String currentPassword, String newPassword) {
-        User customer = getCustomerById(customerId);
-        if (!passwordEncoder.matches(currentPassword, customer.getPassword())) {
+        if (!passwordEncoder.matches(currentPassword, getCustomerById(customerId).getPassword())) {
             throw new IllegalArgumentException("Incorrect current password.");
         }
         if (newPassword == null || newPassword.length() < 6) {
             throw new IllegalArgumentException("New password must be at least 6 characters long.");
         }
-        customer.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(customer);
+        String passwordHash = passwordEncoder.encode(newPassword);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User customer = getCustomerById(customerId);
+            customer.setPassword(passwordHash);
+            userRepository.save(customer);
+            // Sessions started with the old password must sign in again
+            refreshTokenRepository.deleteByUserId(customerId);
+        });
     }
 
+    // No transaction of its own: a cache hit needs no connection, and a miss runs its queries one by one
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<String, Object> getCustomerAnalytics(Long customerId) {
-        User customer = getCustomerById(customerId);
+        return customerAnalyticsCache.get(customerId, () -> loadCustomerAnalytics(customerId));
+    }
+
+    private Map<String, Object> loadCustomerAnalytics(Long customerId) {
+        if (!userRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
         Map<String, Object> analyticsData = new HashMap<>();
-        
-        long totalInteractions = interactionRepository.countByCustomer(customer);
-        List<CustomerCampaign> submittedCampaigns = customerCampaignRepository.findByCustomerId(customerId);
-        analyticsData.put("totalInteractions", totalInteractions);
-        analyticsData.put("submittedCampaignsCount", submittedCampaigns.size());
-        analyticsData.put("approvedCampaignsCount", submittedCampaigns.stream().filter(c -> "APPROVED".equals(c.getStatus())).count());
 
-        analyticsData.put("interactionsByType", interactionRepository.countInteractionsByType(customer));
+        CampaignCounts campaignCounts = customerCampaignRepository.countByCustomerId(customerId);
+        analyticsData.put("totalInteractions", interactionRepository.countByCustomerId(customerId));
+        analyticsData.put("submittedCampaignsCount", campaignCounts.getSubmitted());
+        analyticsData.put("approvedCampaignsCount", campaignCounts.getApproved() == null ? 0L : campaignCounts.getApproved());
+
+        analyticsData.put("interactionsByType", interactionRepository.countInteractionsByType(customerId));
 
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Object[]> dailyCounts = interactionRepository.countInteractionsPerDay(customer, thirtyDaysAgo);
+        List<Object[]> dailyCounts = interactionRepository.countInteractionsPerDay(customerId, thirtyDaysAgo);
 
         Map<LocalDate, Long> dailyCountsMap = dailyCounts.stream()
             .collect(Collectors.toMap(
@@ -91,25 +127,63 @@ public class CustomerServiceImpl implements CustomerService {
                 row -> (Long) row[1]
             ));
         analyticsData.put("interactionTrend", dailyCountsMap);
-        
-        return analyticsData;
+
+        return Collections.unmodifiableMap(analyticsData);
     }
 
     @Override
-    public Page<Interaction> getInteractionsForCustomer(Long customerId, String type, String searchTerm, Pageable pageable) {
-        User customer = getCustomerById(customerId);
+    public Page<InteractionView> getInteractionsForCustomer(Long customerId, String type, String searchTerm, Pageable pageable) {
+        if (!userRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with id: " + customerId);
+        }
         boolean hasType = type != null && !type.isEmpty() && !type.equalsIgnoreCase("all");
         boolean hasSearchTerm = searchTerm != null && !searchTerm.isEmpty();
 
-        if (hasType && hasSearchTerm) {
-            return interactionRepository.findByCustomerAndTypeContaining(customer, type, searchTerm, pageable);
+        if (hasSearchTerm && interactionSearchIndex.isReady()) {
+            return searchInteractions(customerId, hasType ? type : null, searchTerm, pageable);
+        } else if (hasType && hasSearchTerm) {
+            return interactionRepository.findViewsByCustomerAndTypeContaining(customerId, type, searchTerm, pageable);
         } else if (hasSearchTerm) {
-            return interactionRepository.findByCustomerContaining(customer, searchTerm, pageable);
+            return interactionRepository.findViewsByCustomerContaining(customerId, searchTerm, pageable);
         } else if (hasType) {
-            return interactionRepository.findByCustomerAndType(customer, type, pageable);
+            return interactionRepository.findViewsByCustomerAndType(customerId, type, pageable);
+        } else {
+            return interactionRepository.findViewsByCustomer(customerId, pageable);
+        }
+    }
+
+    // Ranked full-text search: ids come from the index, rows from one primary-key lookup
+    private Page<InteractionView> searchInteractions(Long customerId, String type, String searchTerm, Pageable pageable) {
+        InteractionSearchIndex.SearchResult result = interactionSearchIndex.search(customerId, type, searchTerm, pageable);
+        if (result.getIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.getTotalHits());
+        }
+        Map<Long, InteractionView> byId = interactionRepository.findViewsByIdIn(result.getIds()).stream()
+                .collect(Collectors.toMap(InteractionView::getId, Function.identity()));
+        List<InteractionView> ranked = result.getIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ranked, pageable, result.getTotalHits());
+    }
+
+    @Override
+    public CursorPage<InteractionView> getInteractionsForCustomer(Long customerId, String type, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, CursorPage.clampSize(size));
+        boolean hasType = type != null && !type.isEmpty() && !type.equalsIgnoreCase("all");
+
+        Slice<InteractionView> slice;
+        if (hasType) {
+            slice = after == null
+                    ? interactionRepository.findFirstSliceByCustomerAndType(customerId, type, limit)
+                    : interactionRepository.findSliceByCustomerAndTypeAfter(customerId, type, after.getTimestamp(), after.getId(), limit);
         } else {
-            return interactionRepository.findByCustomer(customer, pageable);
+            slice = after == null
+                    ? interactionRepository.findFirstSliceByCustomer(customerId, limit)
+                    : interactionRepository.findSliceByCustomerAfter(customerId, after.getTimestamp(), after.getId(), limit);
         }
+        return CursorPage.of(slice, i -> new Cursor(i.getDate(), i.getId()));
     }
 
     @Override
@@ -118,25 +192,32 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    public Interaction addInteraction(Long customerId, Interaction interaction) {
+    public InteractionView addInteraction(Long customerId, Interaction interaction) {
         User customer = getCustomerById(customerId);
         interaction.setCustomer(customer);
         interaction.setDate(LocalDateTime.now());
         if (interaction.getStatus() == null || interaction.getStatus().isEmpty()) {
             interaction.setStatus("PENDING");
         }
-        return interactionRepository.save(interaction);
+        Interaction saved = interactionRepository.save(interaction);
+        interactionSearchIndex.indexAfterCommit(saved);
+        analyticsRollupService.interactionCreated(saved.getType(), saved.getStatus(), saved.getDate());
+        customerAnalyticsCache.evict(customerId);
+        return InteractionView.from(saved);
     }
 
     @Override
-    public CustomerCampaign submitCampaign(Long customerId, CustomerCampaign campaign) {
+    public CustomerCampaignView submitCampaign(Long customerId, CustomerCampaign campaign) {
         User customer = getCustomerById(customerId);
         campaign.setCustomer(customer);
-        return customerCampaignRepository.save(campaign);
+        CustomerCampaign saved = customerCampaignRepository.save(campaign);
+        analyticsRollupService.campaignSubmitted(saved.getSubmittedAt());
+        customerAnalyticsCache.evict(customerId);
+        return CustomerCampaignView.from(saved);
     }
 
     @Override
-    public List<CustomerCampaign> getSubmittedCampaigns(Long customerId) {
-        return customerCampaignRepository.findByCustomerId(customerId);
+    public List<CustomerCampaignView> getSubmittedCampaigns(Long customerId) {
+        return customerCampaignRepository.findViewsByCustomerId(customerId);
     }
 }
\ No newline at end of file
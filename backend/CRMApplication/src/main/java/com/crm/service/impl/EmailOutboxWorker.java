@@ -0,0 +1,116 @@
+package com.crm.service.impl;
+
+import com.crm.metrics.EmailMetrics;
+import com.crm.model.EmailOutboxMessage;
+import com.crm.model.EmailOutboxMessage.OutboxStatus;
+import com.crm.repository.EmailOutboxRepository;
+import com.crm.settings.SystemSettingsHolder;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the email outbox: claims due messages, hands them to the email worker pool and
+ * records the outcome. Failed sends are retried with exponential backoff and moved to
+ * DEAD after email.outbox.max-attempts.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    static final String FROM_ADDRESS = "noreply@crm-app.com";
+
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private JavaMailSender emailSender;
+    @Autowired @Qualifier("emailExecutor") private ThreadPoolTaskExecutor emailExecutor;
+    @Autowired private EmailMetrics emailMetrics;
+    @Autowired private SystemSettingsHolder systemSettingsHolder;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+    @Value("${email.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+    @Value("${email.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        emailOutboxRepository.releaseExpiredLeases(OutboxStatus.SENDING, OutboxStatus.PENDING, now);
+
+        // Never claim more than the pool can take, so claimed rows don't sit idle in memory
+        int capacity = Math.min(batchSize, emailExecutor.getThreadPoolExecutor().getQueue().remainingCapacity());
+        if (capacity <= 0) {
+            return;
+        }
+        List<Long> dueIds = emailOutboxRepository.findDueIds(OutboxStatus.PENDING, now, PageRequest.of(0, capacity));
+        LocalDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000);
+        for (Long id : dueIds) {
+            if (emailOutboxRepository.claim(id, OutboxStatus.PENDING, OutboxStatus.SENDING, leaseUntil) == 1) {
+                emailExecutor.execute(() -> deliver(id));
+            }
+        }
+    }
+
+    void deliver(Long id) {
+        EmailOutboxMessage message = emailOutboxRepository.findById(id).orElse(null);
+        if (message == null || message.getStatus() != OutboxStatus.SENDING) {
+            return;
+        }
+        message.setAttempts(message.getAttempts() + 1);
+        long start = System.nanoTime();
+        try {
+            emailSender.send(toMimeMessage(message));
+            emailMetrics.recordSend(EmailMetrics.OUTBOX, start, true);
+            message.setStatus(OutboxStatus.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        } catch (Exception e) {
+            emailMetrics.recordSend(EmailMetrics.OUTBOX, start, false);
+            recordFailure(message, e);
+        }
+        emailOutboxRepository.save(message);
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws Exception {
+        MimeMessage mimeMessage = emailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isHtml(), "UTF-8");
+        helper.setFrom(FROM_ADDRESS);
+        String supportEmail = systemSettingsHolder.current().getSupportEmail();
+        if (supportEmail != null) {
+            helper.setReplyTo(supportEmail);
+        }
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), message.isHtml());
+        return mimeMessage;
+    }
+
+    private void recordFailure(EmailOutboxMessage message, Exception e) {
+        String error = String.valueOf(e.getMessage());
+        message.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (message.getAttempts() >= maxAttempts) {
+            message.setStatus(OutboxStatus.DEAD);
+            emailMetrics.recordDeadLetter();
+            System.err.println("Email " + message.getId() + " moved to dead letter after " + message.getAttempts() + " attempts: " + error);
+            return;
+        }
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(message.getAttempts() - 1, 20));
+        message.setStatus(OutboxStatus.PENDING);
+        message.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff * 1_000_000));
+        System.err.println("Error while sending email " + message.getId() + " (attempt " + message.getAttempts() + "): " + error);
+    }
+}
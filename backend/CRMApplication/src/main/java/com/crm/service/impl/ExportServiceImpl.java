@@ -0,0 +1,96 @@
+package com.crm.service.impl;
+
+import com.crm.dto.InteractionView;
+import com.crm.export.ExportColumn;
+import com.crm.export.ExportFormat;
+import com.crm.export.RowWriter;
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.crm.repository.InteractionRepository;
+import com.crm.repository.UserRepository;
+import com.crm.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streaming exports. Rows come off a forward-only cursor read in fetch-size blocks and are
+ * written out one by one; the persistence context is cleared every export.clear-interval rows,
+ * so memory stays flat however large the table is. The read-only transaction holds a single
+ * connection for the whole export.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<ExportColumn<User>> CUSTOMER_COLUMNS = List.of(
+            new ExportColumn<>("id", User::getId),
+            new ExportColumn<>("username", User::getUsername),
+            new ExportColumn<>("email", User::getEmail),
+            new ExportColumn<>("status", User::getStatus),
+            new ExportColumn<>("joinDate", User::getJoinDate),
+            new ExportColumn<>("age", User::getAge),
+            new ExportColumn<>("phone", User::getPhone),
+            new ExportColumn<>("address", User::getAddress),
+            new ExportColumn<>("department", User::getDepartment),
+            new ExportColumn<>("position", User::getPosition));
+
+    private static final List<ExportColumn<InteractionView>> INTERACTION_COLUMNS = List.of(
+            new ExportColumn<>("id", InteractionView::getId),
+            new ExportColumn<>("customerId", view -> view.getCustomer().getId()),
+            new ExportColumn<>("customerUsername", view -> view.getCustomer().getUsername()),
+            new ExportColumn<>("type", InteractionView::getType),
+            new ExportColumn<>("subject", InteractionView::getSubject),
+            new ExportColumn<>("date", InteractionView::getDate),
+            new ExportColumn<>("status", InteractionView::getStatus),
+            new ExportColumn<>("notes", InteractionView::getNotes));
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private InteractionRepository interactionRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${export.clear-interval:1000}")
+    private int clearInterval;
+
+    @Override
+    public long exportCustomers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<User> rows = userRepository.streamByRole(Role.ROLE_CUSTOMER)) {
+            return write(rows, RowWriter.create(format, CUSTOMER_COLUMNS, out, objectMapper));
+        }
+    }
+
+    @Override
+    public long exportInteractions(ExportFormat format, Long customerId, LocalDateTime from, LocalDateTime to,
+                                   OutputStream out) throws IOException {
+        try (Stream<InteractionView> rows = interactionRepository.streamViews(customerId, from, to)) {
+            return write(rows, RowWriter.create(format, INTERACTION_COLUMNS, out, objectMapper));
+        }
+    }
+
+    private <T> long write(Stream<T> rows, RowWriter<T> writer) throws IOException {
+        long count = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            writer.write(it.next());
+            if (++count % clearInterval == 0) {
+                entityManager.clear();
+            }
+        }
+        writer.finish();
+        return count;
+    }
+}
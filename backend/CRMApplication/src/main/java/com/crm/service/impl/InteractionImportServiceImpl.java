@@ -0,0 +1,216 @@
+package com.crm.service.impl;
+
+import com.crm.dto.InteractionImportResult;
+import com.crm.dto.InteractionImportSummary;
+import com.crm.model.Interaction;
+import com.crm.model.Role;
+import com.crm.model.User;
+import com.crm.repository.UserRepository;
+import com.crm.search.InteractionSearchIndex;
+import com.crm.service.AnalyticsRollupService;
+import com.crm.service.InteractionImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Bulk interaction import. Only one batch of records is held in memory at a time: records are
+ * parsed one by one, validated, and every interactions.import.batch-size records the valid ones
+ * are written in a single transaction, as JDBC batches of interactions.import.jdbc-batch-size
+ * rows. Customers are checked with one id query per batch and attached by reference, never loaded.
+ */
+@Service
+public class InteractionImportServiceImpl implements InteractionImportService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private InteractionSearchIndex interactionSearchIndex;
+    @Autowired private AnalyticsRollupService analyticsRollupService;
+    @Autowired private CustomerAnalyticsCache customerAnalyticsCache;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${interactions.import.batch-size:500}")
+    private int batchSize;
+    @Value("${interactions.import.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+    @Value("${interactions.import.max-records:100000}")
+    private long maxRecords;
+
+    @Override
+    public InteractionImportSummary importInteractions(InputStream body, Consumer<List<InteractionImportResult>> onBatch) {
+        InteractionImportSummary summary = new InteractionImportSummary();
+        Batch batch = new Batch();
+        long index = 0;
+        // readValues iterates root-level values, or the elements when the body is one JSON array
+        try (MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (records.hasNextValue()) {
+                if (index == maxRecords) {
+                    summary.setError("Stopped after " + maxRecords + " records; send the rest in another request.");
+                    break;
+                }
+                batch.add(index, records.nextValue());
+                index++;
+                if (batch.size() == batchSize) {
+                    write(batch, summary, onBatch);
+                    batch = new Batch();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            summary.setError("Malformed JSON after record " + index + ": " + e.getOriginalMessage());
+        } catch (IOException e) {
+            summary.setError("Could not read the request body after record " + index + ": " + e.getMessage());
+        }
+        write(batch, summary, onBatch);
+        summary.setReceived(index);
+        return summary;
+    }
+
+    private void write(Batch batch, InteractionImportSummary summary, Consumer<List<InteractionImportResult>> onBatch) {
+        if (batch.size() == 0) {
+            return;
+        }
+        List<InteractionImportResult> results = new ArrayList<>(batch.size());
+        results.addAll(batch.rejected);
+        if (!batch.valid.isEmpty()) {
+            results.addAll(persist(batch.valid));
+        }
+        results.sort(Comparator.comparingLong(InteractionImportResult::getIndex));
+        results.forEach(summary::add);
+        onBatch.accept(results);
+    }
+
+    private List<InteractionImportResult> persist(List<PendingInteraction> valid) {
+        Set<Long> customerIds = new LinkedHashSet<>();
+        valid.forEach(pending -> customerIds.add(pending.customerId));
+        Set<Long> knownCustomers = new HashSet<>(userRepository.findIdsByRole(customerIds, Role.ROLE_CUSTOMER));
+
+        List<InteractionImportResult> results = new ArrayList<>(valid.size());
+        List<PendingInteraction> stored = new ArrayList<>(valid.size());
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                for (PendingInteraction pending : valid) {
+                    if (!knownCustomers.contains(pending.customerId)) {
+                        results.add(InteractionImportResult.rejected(pending.index, "Customer not found with id: " + pending.customerId));
+                        continue;
+                    }
+                    Interaction interaction = pending.interaction;
+                    interaction.setCustomer(entityManager.getReference(User.class, pending.customerId));
+                    entityManager.persist(interaction);
+                    interactionSearchIndex.indexAfterCommit(interaction);
+                    analyticsRollupService.interactionCreated(interaction.getType(), interaction.getStatus(), interaction.getDate());
+                    stored.add(pending);
+                }
+                knownCustomers.forEach(customerAnalyticsCache::evict);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            stored.forEach(pending -> results.add(InteractionImportResult.created(pending.index, pending.interaction.getId())));
+        } catch (RuntimeException e) {
+            // The whole batch rolled back; every record that was going to be written failed with it
+            System.err.println("Interaction import batch failed: " + e.getMessage());
+            stored.forEach(pending -> results.add(InteractionImportResult.failed(pending.index, "Batch could not be saved: " + e.getMessage())));
+        }
+        return results;
+    }
+
+    /**
+     * Turns one JSON record into an unsaved interaction.
+     * @throws IllegalArgumentException with a client-facing message if the record is invalid.
+     */
+    private PendingInteraction parse(long index, JsonNode record) {
+        if (!record.isObject()) {
+            throw new IllegalArgumentException("Record must be a JSON object.");
+        }
+        JsonNode customerId = record.path("customerId");
+        if (!customerId.isIntegralNumber() || !customerId.canConvertToLong()) {
+            throw new IllegalArgumentException("customerId is required and must be a number.");
+        }
+        String type = text(record, "type");
+        if (type == null) {
+            throw new IllegalArgumentException("type is required.");
+        }
+        String status = text(record, "status");
+        LocalDateTime date;
+        try {
+            String rawDate = text(record, "date");
+            date = rawDate == null ? LocalDateTime.now() : LocalDateTime.parse(rawDate);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date must be an ISO-8601 local date-time, e.g. 2024-05-01T14:30:00.");
+        }
+        JsonNode notes = record.path("notes");
+        Interaction interaction = new Interaction(null, type, text(record, "subject"), date,
+                status == null ? "PENDING" : status, notes.isTextual() ? notes.asText() : null);
+        return new PendingInteraction(index, customerId.asLong(), interaction);
+    }
+
+    private static String text(JsonNode record, String field) {
+        JsonNode node = record.path(field);
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        if (!node.isValueNode()) {
+            throw new IllegalArgumentException(field + " must be a string.");
+        }
+        String value = node.asText().trim();
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(field + " must be at most " + MAX_TEXT_LENGTH + " characters.");
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    private final class Batch {
+        private final List<PendingInteraction> valid = new ArrayList<>();
+        private final List<InteractionImportResult> rejected = new ArrayList<>();
+
+        void add(long index, JsonNode record) {
+            try {
+                valid.add(parse(index, record));
+            } catch (IllegalArgumentException e) {
+                rejected.add(InteractionImportResult.rejected(index, e.getMessage()));
+            }
+        }
+
+        int size() {
+            return valid.size() + rejected.size();
+        }
+    }
+
+    private static final class PendingInteraction {
+        private final long index;
+        private final long customerId;
+        private final Interaction interaction;
+
+        private PendingInteraction(long index, long customerId, Interaction interaction) {
+            this.index = index;
+            this.customerId = customerId;
+            this.interaction = interaction;
+        }
+    }
+}
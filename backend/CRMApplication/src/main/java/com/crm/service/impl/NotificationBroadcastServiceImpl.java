@@ -0,0 +1,176 @@
+package com.crm.service.impl;
+
+import com.crm.dto.NotificationView;
+import com.crm.exception.ResourceNotFoundException;
+import com.crm.model.IdGenerators;
+import com.crm.model.NotificationBroadcast;
+import com.crm.model.Role;
+import com.crm.model.User.UserStatus;
+import com.crm.notification.BroadcastDeliveredEvent;
+import com.crm.notification.SharedBroadcastCreatedEvent;
+import com.crm.repository.IdSequenceRepository;
+import com.crm.repository.NotificationBroadcastRepository;
+import com.crm.repository.NotificationCounterRepository;
+import com.crm.repository.NotificationRepository;
+import com.crm.repository.UserRepository;
+import com.crm.service.NotificationBroadcastService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Broadcasts to every active customer. FANOUT jobs run on notificationBroadcastExecutor in chunks
+ * of notifications.broadcast.chunk-size customers, one transaction per chunk: an INSERT ... SELECT
+ * of the chunk's notifications (ids reserved up front as one block), an upsert of the unread
+ * counters, and the checkpoint. Jobs hold a lease that every checkpoint renews; a job whose worker
+ * dies is resumed from its checkpoint by {@link #resumeInterruptedBroadcasts()}.
+ */
+@Service
+public class NotificationBroadcastServiceImpl implements NotificationBroadcastService {
+
+    @Autowired private NotificationBroadcastRepository broadcastRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private NotificationCounterRepository notificationCounterRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private IdSequenceRepository idSequenceRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired @Qualifier("notificationBroadcastExecutor") private ThreadPoolTaskExecutor broadcastExecutor;
+
+    private static final int MAX_SEQUENCE_ATTEMPTS = 5;
+
+    @Value("${notifications.broadcast.chunk-size:1000}")
+    private int chunkSize;
+    @Value("${notifications.broadcast.lease-ms:120000}")
+    private long leaseMs;
+
+    @Override
+    public NotificationBroadcast broadcast(String message, NotificationBroadcast.Mode mode) {
+        LocalDateTime now = LocalDateTime.now();
+        if (mode == NotificationBroadcast.Mode.SHARED) {
+            NotificationBroadcast shared = saveShared(message, now);
+            eventPublisher.publishEvent(new SharedBroadcastCreatedEvent(
+                    new NotificationView(shared.getId(), message, false, shared.getCreatedAt())));
+            return shared;
+        }
+
+        NotificationBroadcast broadcast = new NotificationBroadcast();
+        broadcast.setMessage(message);
+        broadcast.setMode(mode);
+        broadcast.setStatus(NotificationBroadcast.Status.QUEUED);
+        broadcast.setRecipientCount(userRepository.countByRoleAndStatus(Role.ROLE_CUSTOMER, UserStatus.ACTIVE));
+        broadcast.setLeaseUntil(leaseUntil(now));
+        broadcast = broadcastRepository.save(broadcast);
+        Long broadcastId = broadcast.getId();
+        try {
+            broadcastExecutor.execute(() -> run(broadcastId));
+        } catch (TaskRejectedException e) {
+            // Stays queued; picked up by resumeInterruptedBroadcasts once its lease runs out
+        }
+        return broadcast;
+    }
+
+    @Override
+    public NotificationBroadcast getBroadcast(Long broadcastId) {
+        return broadcastRepository.findById(broadcastId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification broadcast not found: " + broadcastId));
+    }
+
+    /**
+     * Picks up fan-out jobs whose worker stopped renewing its lease, e.g. after a crash or restart.
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${notifications.broadcast.lease-ms:120000}")
+    public void resumeInterruptedBroadcasts() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long broadcastId : broadcastRepository.findInterruptedIds(now)) {
+            if (broadcastRepository.claim(broadcastId, now, leaseUntil(now)) == 1) {
+                System.out.println("Resuming interrupted notification broadcast " + broadcastId);
+                broadcastExecutor.execute(() -> run(broadcastId));
+            }
+        }
+    }
+
+    void run(Long broadcastId) {
+        NotificationBroadcast broadcast = broadcastRepository.findById(broadcastId).orElse(null);
+        if (broadcast == null || broadcast.isFinished()) {
+            return;
+        }
+        broadcastRepository.markRunning(broadcastId, LocalDateTime.now());
+        long lastUserId = broadcast.getLastUserId();
+        try {
+            while (true) {
+                List<Long> userIds = userRepository.findIdsByRoleAndStatusAfter(
+                        Role.ROLE_CUSTOMER, UserStatus.ACTIVE, lastUserId, PageRequest.of(0, chunkSize));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                deliver(broadcast, lastUserId, userIds);
+                lastUserId = userIds.get(userIds.size() - 1);
+                if (userIds.size() < chunkSize) {
+                    break;
+                }
+            }
+            broadcastRepository.complete(broadcastId, LocalDateTime.now());
+        } catch (Exception e) {
+            // The lease runs out and resumeInterruptedBroadcasts retries from the last checkpoint
+            System.err.println("Notification broadcast " + broadcastId + " interrupted: " + e.getMessage());
+        }
+    }
+
+    private void deliver(NotificationBroadcast broadcast, long fromUserId, List<Long> userIds) {
+        // Claimed in its own transaction; if the chunk rolls back, the block is left unused
+        long firstId = idSequenceRepository.reserve(IdGenerators.NOTIFICATIONS, userIds.size());
+        long toUserId = userIds.get(userIds.size() - 1);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Customers deleted since the chunk was read are skipped by the join on users
+            int delivered = notificationRepository.insertBroadcast(firstId, broadcast.getMessage(),
+                    broadcast.getCreatedAt(), userIds);
+            notificationCounterRepository.incrementAll(userIds);
+            if (broadcastRepository.checkpoint(broadcast.getId(), fromUserId, toUserId, delivered,
+                    leaseUntil(LocalDateTime.now())) == 0) {
+                throw new IllegalStateException("Notification broadcast " + broadcast.getId() + " was advanced by another worker.");
+            }
+            eventPublisher.publishEvent(new BroadcastDeliveredEvent(userIds, firstId));
+        });
+    }
+
+    /**
+     * Stores a shared broadcast under the next sequence number. Two broadcasts sent at once collide
+     * on the unique sequence index, and the loser retries with the following number, so the
+     * sequence has no gaps for unread counts to trip over.
+     */
+    private NotificationBroadcast saveShared(String message, LocalDateTime now) {
+        for (int attempt = 1; ; attempt++) {
+            Long latest = broadcastRepository.findLatestSequence();
+            NotificationBroadcast broadcast = new NotificationBroadcast();
+            broadcast.setMessage(message);
+            broadcast.setMode(NotificationBroadcast.Mode.SHARED);
+            broadcast.setSequence((latest == null ? 0 : latest) + 1);
+            broadcast.setStatus(NotificationBroadcast.Status.COMPLETED);
+            broadcast.setFinishedAt(now);
+            try {
+                return broadcastRepository.save(broadcast);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_SEQUENCE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private LocalDateTime leaseUntil(LocalDateTime now) {
+        return now.plusNanos(leaseMs * 1_000_000);
+    }
+}
@@ -0,0 +1,194 @@
+package com.crm.service.impl;
+
+import com.crm.dto.Cursor;
+import com.crm.dto.CursorPage;
+import com.crm.dto.NotificationView;
+import com.crm.model.Notification;
+import com.crm.model.NotificationCounter;
+import com.crm.model.User;
+import com.crm.notification.NotificationCreatedEvent;
+import com.crm.repository.NotificationBroadcastRepository;
+import com.crm.repository.NotificationCounterRepository;
+import com.crm.repository.NotificationRepository;
+import com.crm.repository.UserRepository;
+import com.crm.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class NotificationServiceImpl implements NotificationService {
+
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private NotificationCounterRepository notificationCounterRepository;
+    @Autowired private NotificationBroadcastRepository broadcastRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Ids per UPDATE statement when marking notifications as read
+    @Value("${notifications.read.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public Notification notify(User user, String message) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setMessage(message);
+        Notification saved = notificationRepository.save(notification);
+        notificationCounterRepository.increment(user.getId(), 1);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(user.getId(), NotificationView.from(saved)));
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationView> findAfter(Long userId, long afterId, int limit) {
+        return notificationRepository.findViewsAfter(userId, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, NotificationView> findBroadcastCopies(Collection<Long> userIds, long firstId, int size) {
+        Map<Long, NotificationView> copies = new HashMap<>();
+        for (Object[] row : notificationRepository.findInBlockForUsers(firstId, firstId + size, userIds)) {
+            copies.put((Long) row[0], new NotificationView((Long) row[1], (String) row[2], (Boolean) row[3], (LocalDateTime) row[4]));
+        }
+        return copies;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationView> getNotifications(Long userId, boolean unreadOnly, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, CursorPage.clampSize(size));
+
+        Slice<NotificationView> slice;
+        if (unreadOnly) {
+            slice = after == null
+                    ? notificationRepository.findFirstUnreadSlice(userId, limit)
+                    : notificationRepository.findUnreadSliceAfter(userId, after.getTimestamp(), after.getId(), limit);
+        } else {
+            slice = after == null
+                    ? notificationRepository.findFirstSlice(userId, limit)
+                    : notificationRepository.findSliceAfter(userId, after.getTimestamp(), after.getId(), limit);
+        }
+        return CursorPage.of(slice, n -> new Cursor(n.getCreatedAt(), n.getId()));
+    }
+
+    // Not read-only: the first call for a user records where their shared broadcasts start
+    @Override
+    @Transactional
+    public long countUnread(Long userId) {
+        NotificationCounter counter = notificationCounterRepository.findById(userId).orElse(null);
+        long unread = counter == null ? 0 : counter.getUnread();
+        long readUpTo = Math.max(counter == null ? 0 : counter.getBroadcastsReadUpTo(), broadcastsFrom(userId, counter));
+        Long latest = broadcastRepository.findLatestSequence();
+        return unread + Math.max(0, (latest == null ? 0 : latest) - readUpTo);
+    }
+
+    @Override
+    @Transactional
+    public CursorPage<NotificationView> getBroadcasts(Long userId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, CursorPage.clampSize(size));
+        NotificationCounter counter = notificationCounterRepository.findById(userId).orElse(null);
+        long readUpTo = counter == null ? 0 : counter.getBroadcastsReadUpTo();
+        long fromSequence = broadcastsFrom(userId, counter);
+
+        Slice<NotificationView> slice = after == null
+                ? broadcastRepository.findFirstSharedSlice(readUpTo, fromSequence, limit)
+                : broadcastRepository.findSharedSliceAfter(readUpTo, fromSequence, after.getTimestamp(), after.getId(), limit);
+        return CursorPage.of(slice, n -> new Cursor(n.getCreatedAt(), n.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void markBroadcastsRead(Long userId, Long upToId) {
+        // Ids map to the sequence of the newest broadcast at or below them, which caps them at the newest broadcast
+        Long upTo = upToId != null
+                ? broadcastRepository.findLatestSequenceUpToId(upToId)
+                : broadcastRepository.findLatestSequence();
+        if (upTo != null) {
+            notificationCounterRepository.markBroadcastsRead(userId, upTo);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int markRead(Long userId, Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            updated += notificationRepository.markRead(userId, distinct.subList(from, Math.min(from + batchSize, distinct.size())));
+        }
+        if (updated > 0) {
+            notificationCounterRepository.increment(userId, -updated);
+        }
+        return updated;
+    }
+
+    @Override
+    public int markAllRead(Long userId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int[] fetched = new int[1];
+        int total = 0;
+        // Short transactions, so a user with a large backlog does not hold row locks for the whole run
+        do {
+            total += transaction.execute(status -> {
+                List<Long> ids = notificationRepository.findUnreadIds(userId, PageRequest.of(0, batchSize));
+                fetched[0] = ids.size();
+                int updated = ids.isEmpty() ? 0 : notificationRepository.markRead(userId, ids);
+                if (updated > 0) {
+                    notificationCounterRepository.increment(userId, -updated);
+                }
+                return updated;
+            });
+        } while (fetched[0] == batchSize);
+        transaction.executeWithoutResult(status -> markBroadcastsRead(userId, null));
+        return total;
+    }
+
+    /**
+     * Shared broadcasts are for customers who had joined when they were sent. Where a user's start
+     * in the sequence is not on their counter yet, it is looked up from their join date once and stored.
+     */
+    private long broadcastsFrom(Long userId, NotificationCounter counter) {
+        if (counter != null && counter.getBroadcastsFrom() != null) {
+            return counter.getBroadcastsFrom();
+        }
+        LocalDateTime joinedAt = userRepository.findById(userId).map(User::getJoinDate).orElse(EPOCH);
+        Long fromSequence = broadcastRepository.findLatestSequenceAt(joinedAt);
+        long from = fromSequence == null ? 0 : fromSequence;
+        notificationCounterRepository.setBroadcastsFrom(userId, from);
+        return from;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCountersIfEmpty() {
+        if (notificationCounterRepository.findFirstBy().isEmpty()) {
+            notificationCounterRepository.backfill();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.crm.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Minimal token-bucket limiter shared by the threads of one dispatch.
+ * A rate of zero or less disables throttling.
+ */
+class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeSlot = System.nanoTime();
+
+    RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+    }
+
+    /**
+     * Blocks until the caller may send the next message.
+     */
+    void acquire() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitUntil;
+        synchronized (this) {
+            long now = System.nanoTime();
+            // Allow at most one second of burst after an idle period
+            nextFreeSlot = Math.max(nextFreeSlot, now - TimeUnit.SECONDS.toNanos(1));
+            waitUntil = nextFreeSlot;
+            nextFreeSlot += intervalNanos;
+        }
+        long delay;
+        while ((delay = waitUntil - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+}
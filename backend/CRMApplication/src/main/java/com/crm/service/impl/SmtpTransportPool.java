@@ -0,0 +1,144 @@
+package com.crm.service.impl;
+
+import com.crm.metrics.EmailMetrics;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of connected SMTP transports for bulk sends. A transport stays open across many
+ * messages instead of JavaMailSender opening a new connection for every send call.
+ */
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailMetrics emailMetrics;
+
+    @Value("${campaign.dispatch.transport-pool-size:4}")
+    private int poolSize;
+
+    private BlockingQueue<Transport> idle;
+
+    public int size() {
+        return poolSize;
+    }
+
+    /**
+     * Sends the messages over one pooled connection, waiting for the limiter before each one.
+     * @param messages Messages to send.
+     * @param rateLimiter Shared throttle for the current dispatch.
+     * @return The number of messages accepted by the server.
+     */
+    int send(List<MimeMessage> messages, RateLimiter rateLimiter) throws InterruptedException {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            return sendWithoutPool(messages, rateLimiter);
+        }
+        Transport transport = borrow();
+        int sent = 0;
+        try {
+            for (MimeMessage message : messages) {
+                rateLimiter.acquire();
+                stopIfInterrupted();
+                long start = System.nanoTime();
+                try {
+                    transport = ensureConnected(transport);
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    emailMetrics.recordSend(EmailMetrics.CAMPAIGN, start, true);
+                    sent++;
+                } catch (MessagingException e) {
+                    emailMetrics.recordSend(EmailMetrics.CAMPAIGN, start, false);
+                    System.err.println("Error while sending campaign email: " + e.getMessage());
+                }
+            }
+        } finally {
+            idle.offer(transport);
+        }
+        return sent;
+    }
+
+    private int sendWithoutPool(List<MimeMessage> messages, RateLimiter rateLimiter) throws InterruptedException {
+        int sent = 0;
+        for (MimeMessage message : messages) {
+            rateLimiter.acquire();
+            stopIfInterrupted();
+            long start = System.nanoTime();
+            try {
+                mailSender.send(message);
+                emailMetrics.recordSend(EmailMetrics.CAMPAIGN, start, true);
+                sent++;
+            } catch (Exception e) {
+                emailMetrics.recordSend(EmailMetrics.CAMPAIGN, start, false);
+                System.err.println("Error while sending campaign email: " + e.getMessage());
+            }
+        }
+        return sent;
+    }
+
+    // The dispatch cancels its slices when it loses the campaign's lease
+    private static void stopIfInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private synchronized void initPool() throws MessagingException {
+        if (idle != null) {
+            return;
+        }
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        BlockingQueue<Transport> transports = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            // Connections are opened lazily by ensureConnected
+            transports.add(sender.getSession().getTransport(sender.getProtocol()));
+        }
+        idle = transports;
+    }
+
+    private Transport borrow() throws InterruptedException {
+        try {
+            initPool();
+        } catch (MessagingException e) {
+            throw new IllegalStateException("Could not create SMTP transports", e);
+        }
+        return idle.take();
+    }
+
+    private Transport ensureConnected(Transport transport) throws MessagingException {
+        if (transport.isConnected()) {
+            return transport;
+        }
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        String username = sender.getUsername() == null || sender.getUsername().isEmpty() ? null : sender.getUsername();
+        transport.connect(sender.getHost(), sender.getPort(), username, sender.getPassword());
+        return transport;
+    }
+
+    @Override
+    public void destroy() {
+        if (idle == null) {
+            return;
+        }
+        for (Transport transport : idle) {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+                // Shutting down anyway
+            }
+        }
+    }
+}
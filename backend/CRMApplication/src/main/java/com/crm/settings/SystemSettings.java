@@ -0,0 +1,134 @@
+package com.crm.settings;
+
+import com.crm.model.Settings;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Immutable, typed view of the system_settings row, parsed once per change. The raw JSON sections
+ * are kept so the admin UI gets back exactly what it saved, including keys this class ignores.
+ */
+public final class SystemSettings {
+
+    static final SystemSettings DEFAULTS = new SystemSettings(-1, "{}", "{}", "{}", null, null, null, Map.of());
+
+    private final long version;
+    private final String generalJson;
+    private final String emailJson;
+    private final String securityJson;
+    private final String companyName;
+    private final String supportEmail;
+    private final Duration sessionTimeout;
+    private final Map<String, String> templateOverrides;
+
+    private SystemSettings(long version, String generalJson, String emailJson, String securityJson,
+                           String companyName, String supportEmail, Duration sessionTimeout,
+                           Map<String, String> templateOverrides) {
+        this.version = version;
+        this.generalJson = generalJson;
+        this.emailJson = emailJson;
+        this.securityJson = securityJson;
+        this.companyName = companyName;
+        this.supportEmail = supportEmail;
+        this.sessionTimeout = sessionTimeout;
+        this.templateOverrides = templateOverrides;
+    }
+
+    /**
+     * Parses the JSON sections of a settings row. A section that is not valid JSON is treated as empty.
+     * @param settings The settings row.
+     * @param objectMapper Mapper used to read the sections.
+     * @return The parsed snapshot.
+     */
+    static SystemSettings parse(Settings settings, ObjectMapper objectMapper) {
+        JsonNode general = readSection(objectMapper, "general", settings.getGeneralSettings());
+        JsonNode email = readSection(objectMapper, "email", settings.getEmailSettings());
+        JsonNode security = readSection(objectMapper, "security", settings.getSecuritySettings());
+
+        Map<String, String> overrides = new HashMap<>();
+        JsonNode templates = email.path("templates");
+        if (templates.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = templates.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                overrides.put(field.getKey(), field.getValue().asText());
+            }
+        }
+        // The admin form posts numbers as strings, so accept both
+        long timeoutMinutes = security.path("sessionTimeout").asLong(0);
+
+        return new SystemSettings(
+                settings.getVersion(),
+                nullToEmpty(settings.getGeneralSettings()),
+                nullToEmpty(settings.getEmailSettings()),
+                nullToEmpty(settings.getSecuritySettings()),
+                text(general, "companyName"),
+                text(general, "supportEmail"),
+                timeoutMinutes > 0 ? Duration.ofMinutes(timeoutMinutes) : null,
+                Map.copyOf(overrides));
+    }
+
+    private static JsonNode readSection(ObjectMapper objectMapper, String name, String json) {
+        if (json == null || json.isBlank()) {
+            return objectMapper.createObjectNode();
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            System.err.println("Ignoring invalid " + name + " settings: " + e.getMessage());
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        String value = node.path(field).asText("").trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String json) {
+        return json == null ? "{}" : json;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** @return The configured company name, or null. */
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    /** @return The configured support address, or null. */
+    public String getSupportEmail() {
+        return supportEmail;
+    }
+
+    /** @return The configured session timeout, or null to use jwt.expiration. */
+    public Duration getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    /** @return Email template overrides by template name. */
+    public Map<String, String> getTemplateOverrides() {
+        return templateOverrides;
+    }
+
+    /**
+     * @return A detached entity holding the raw sections, in the shape the admin API returns.
+     */
+    public Settings toEntity() {
+        Settings settings = new Settings();
+        settings.setId(SystemSettingsHolder.SETTINGS_ID);
+        settings.setGeneralSettings(generalJson);
+        settings.setEmailSettings(emailJson);
+        settings.setSecuritySettings(securityJson);
+        settings.setVersion(Math.max(version, 0));
+        return settings;
+    }
+}
@@ -0,0 +1,18 @@
+package com.crm.settings;
+
+/**
+ * Published after a new settings snapshot has been installed on this node, whether it was
+ * written here or picked up from another node.
+ */
+public class SystemSettingsChangedEvent {
+
+    private final SystemSettings settings;
+
+    public SystemSettingsChangedEvent(SystemSettings settings) {
+        this.settings = settings;
+    }
+
+    public SystemSettings getSettings() {
+        return settings;
+    }
+}
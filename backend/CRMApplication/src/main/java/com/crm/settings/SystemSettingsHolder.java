@@ -0,0 +1,110 @@
+package com.crm.settings;
+
+import com.crm.cache.CacheInvalidationService;
+import com.crm.cache.CacheRegions;
+import com.crm.model.Settings;
+import com.crm.repository.SettingsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link SystemSettings} snapshot. Readers call {@link #current()}, which is a
+ * volatile read with no I/O or parsing. A write on this node swaps the snapshot once its
+ * transaction commits. Other nodes notice through a version check every
+ * settings.refresh-interval-ms and reload the row only when the version has moved.
+ */
+@Component
+public class SystemSettingsHolder {
+
+    static final long SETTINGS_ID = 1L;
+
+    @Autowired private SettingsRepository settingsRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CacheInvalidationService cacheInvalidationService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<SystemSettings> current = new AtomicReference<>(SystemSettings.DEFAULTS);
+
+    @PostConstruct
+    public void load() {
+        Settings settings = settingsRepository.findFreshById(SETTINGS_ID).orElseGet(this::createDefaults);
+        install(SystemSettings.parse(settings, objectMapper));
+    }
+
+    public SystemSettings current() {
+        return current.get();
+    }
+
+    /**
+     * Writes new settings sections and bumps the version. Must run inside a transaction; the
+     * snapshot on this node is swapped after commit.
+     * @return The snapshot that will be installed on commit.
+     */
+    public SystemSettings update(String generalSettings, String emailSettings, String securitySettings) {
+        if (settingsRepository.update(SETTINGS_ID, generalSettings, emailSettings, securitySettings) == 0) {
+            createDefaults();
+            settingsRepository.update(SETTINGS_ID, generalSettings, emailSettings, securitySettings);
+        }
+        Settings written = new Settings();
+        written.setGeneralSettings(generalSettings);
+        written.setEmailSettings(emailSettings);
+        written.setSecuritySettings(securitySettings);
+        written.setVersion(settingsRepository.findVersionById(SETTINGS_ID).orElse(0L));
+        SystemSettings next = SystemSettings.parse(written, objectMapper);
+
+        // A bulk update bypasses entity events, so the cached Settings entity is invalidated explicitly
+        cacheInvalidationService.markDirty(CacheRegions.SETTINGS);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    install(next);
+                }
+            });
+        } else {
+            install(next);
+        }
+        return next;
+    }
+
+    @Scheduled(fixedDelayString = "${settings.refresh-interval-ms:5000}")
+    public void refresh() {
+        Long version = settingsRepository.findVersionById(SETTINGS_ID).orElse(null);
+        if (version == null || version == current().getVersion()) {
+            return;
+        }
+        settingsRepository.findFreshById(SETTINGS_ID)
+                .ifPresent(settings -> install(SystemSettings.parse(settings, objectMapper)));
+    }
+
+    private Settings createDefaults() {
+        Settings settings = new Settings();
+        settings.setId(SETTINGS_ID);
+        settings.setGeneralSettings("{}");
+        settings.setEmailSettings("{}");
+        settings.setSecuritySettings("{}");
+        try {
+            return settingsRepository.save(settings);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+            return settingsRepository.findFreshById(SETTINGS_ID).orElse(settings);
+        }
+    }
+
+    private void install(SystemSettings next) {
+        // Never go backwards if a slow poll races a local write
+        SystemSettings previous = current.getAndUpdate(old -> next.getVersion() > old.getVersion() ? next : old);
+        if (next.getVersion() > previous.getVersion()) {
+            eventPublisher.publishEvent(new SystemSettingsChangedEvent(next));
+        }
+    }
+}
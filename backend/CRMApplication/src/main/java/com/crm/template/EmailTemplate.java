@@ -0,0 +1,114 @@
+package com.crm.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email body compiled once into literal segments and {{field}} slots.
+ * Rendering only appends to a caller-supplied buffer; nothing is re-parsed per recipient.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final boolean html;
+    // literals.length == fields.length + 1; output is literal[0] field[0] literal[1] ... literal[n]
+    private final String[] literals;
+    private final String[] fields;
+
+    private EmailTemplate(String name, boolean html, String[] literals, String[] fields) {
+        this.name = name;
+        this.html = html;
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a template source.
+     * @param name Template name, used in error messages.
+     * @param source Template text with {{field}} placeholders.
+     * @param html Whether merged values must be HTML-escaped.
+     * @return The compiled template.
+     */
+    public static EmailTemplate compile(String name, String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(source.substring(pos));
+                break;
+            }
+            literals.add(source.substring(pos, open));
+            fields.add(source.substring(open + OPEN.length(), close).trim());
+            pos = close + CLOSE.length();
+        }
+        return new EmailTemplate(name, html, literals.toArray(new String[0]), fields.toArray(new String[0]));
+    }
+
+    /**
+     * Appends the rendered template to the buffer. Missing fields render as empty.
+     * @param values Merge values by field name.
+     * @param out Buffer to append to; callers may reuse it between renders.
+     */
+    public void renderTo(Map<String, ?> values, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < fields.length; i++) {
+            Object value = values.get(fields[i]);
+            if (value != null) {
+                if (html) {
+                    appendEscaped(value.toString(), out);
+                } else {
+                    out.append(value);
+                }
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Renders into a fresh string.
+     * @param values Merge values by field name.
+     * @return The rendered body.
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(estimatedLength());
+        renderTo(values, out);
+        return out.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    int estimatedLength() {
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        return length + fields.length * 16;
+    }
+
+    private static void appendEscaped(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
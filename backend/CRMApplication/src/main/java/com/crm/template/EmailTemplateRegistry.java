@@ -0,0 +1,111 @@
+package com.crm.template;
+
+import com.crm.settings.SystemSettings;
+import com.crm.settings.SystemSettingsChangedEvent;
+import com.crm.settings.SystemSettingsHolder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the compiled email templates. Defaults come from classpath:templates/email/*.html;
+ * an admin can override any of them under "templates" in Settings.emailSettings, e.g.
+ * {"templates": {"account-approved": "&lt;p&gt;Hi {{username}}&lt;/p&gt;"}}.
+ * Templates are compiled at startup and again whenever the settings change.
+ */
+@Component
+public class EmailTemplateRegistry {
+
+    public static final String ACCOUNT_APPROVED = "account-approved";
+    public static final String ACCOUNT_REJECTED = "account-rejected";
+
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    @Autowired private SystemSettingsHolder systemSettingsHolder;
+
+    private Map<String, EmailTemplate> classpathTemplates = Map.of();
+    private volatile Map<String, EmailTemplate> templates = Map.of();
+
+    // Reused per thread so rendering a batch does not grow a new buffer for every message
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    @PostConstruct
+    public void loadClasspathTemplates() throws IOException {
+        Map<String, EmailTemplate> loaded = new HashMap<>();
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath*:templates/email/*.html");
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            String name = filename.substring(0, filename.lastIndexOf('.'));
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            loaded.put(name, EmailTemplate.compile(name, source, true));
+        }
+        classpathTemplates = Map.copyOf(loaded);
+        templates = classpathTemplates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSettingsOverrides() {
+        reload(systemSettingsHolder.current());
+    }
+
+    @EventListener
+    public void onSettingsChanged(SystemSettingsChangedEvent event) {
+        reload(event.getSettings());
+    }
+
+    /**
+     * Recompiles the templates from the classpath defaults plus the overrides in the given settings.
+     * @param settings The current settings snapshot.
+     */
+    public void reload(SystemSettings settings) {
+        Map<String, EmailTemplate> compiled = new HashMap<>(classpathTemplates);
+        settings.getTemplateOverrides().forEach((name, source) ->
+                compiled.put(name, EmailTemplate.compile(name, source, true)));
+        templates = Map.copyOf(compiled);
+    }
+
+    public EmailTemplate get(String name) {
+        EmailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return template;
+    }
+
+    /**
+     * Renders a registered template using this thread's reusable buffer.
+     * @param name Template name.
+     * @param values Merge values by field name.
+     * @return The rendered body.
+     */
+    public String render(String name, Map<String, ?> values) {
+        return render(get(name), values);
+    }
+
+    /**
+     * Renders any compiled template (e.g. a campaign body) using this thread's reusable buffer.
+     * @param template The compiled template.
+     * @param values Merge values by field name.
+     * @return The rendered body.
+     */
+    public String render(EmailTemplate template, Map<String, ?> values) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(values, buffer);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            // Don't let one huge message pin a large buffer to the thread forever
+            buffers.remove();
+        }
+        return rendered;
+    }
+}
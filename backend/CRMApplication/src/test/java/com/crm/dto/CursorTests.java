@@ -0,0 +1,61 @@
+package com.crm.dto;
+
+import com.crm.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorTests {
+
+    @Test
+    void decodesWhatItEncodes() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 3, 9, 14, 5, 7, 123_456_000);
+        Cursor decoded = Cursor.decode(new Cursor(timestamp, 42L).encode());
+
+        assertEquals(timestamp, decoded.getTimestamp());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void roundTripsWholeSecondsAndLargeIds() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Cursor decoded = Cursor.decode(new Cursor(timestamp, Long.MAX_VALUE).encode());
+
+        assertEquals(timestamp, decoded.getTimestamp());
+        assertEquals(Long.MAX_VALUE, decoded.getId());
+    }
+
+    @Test
+    void encodesAsUrlSafeText() {
+        String encoded = new Cursor(LocalDateTime.of(2024, 3, 9, 14, 5, 7), 7L).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void treatsMissingCursorAsFirstPage() {
+        assertNull(Cursor.decode(null));
+        assertNull(Cursor.decode(""));
+    }
+
+    @Test
+    void rejectsInputItDidNotProduce() {
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode("zz"));
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode("not base64!"));
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode(encode("no separator")));
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode(encode("yesterday|5")));
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode(encode("2024-03-09T14:05:07|five")));
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode(encode("|5")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
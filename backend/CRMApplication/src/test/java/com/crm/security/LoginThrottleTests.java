@@ -0,0 +1,98 @@
+package com.crm.security;
+
+import com.crm.exception.TooManyAttemptsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTests {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void windowAllowsUpToTheLimit() {
+        LoginThrottle.Window window = new LoginThrottle.Window(60);
+
+        assertEquals(0, window.increment(3, T0));
+        assertEquals(0, window.increment(3, T0 + 1));
+        assertEquals(0, window.increment(3, T0 + 2));
+        assertEquals(60, window.increment(3, T0 + 3));
+    }
+
+    @Test
+    void retryAfterRoundsUpToTheNextSecond() {
+        LoginThrottle.Window window = new LoginThrottle.Window(60);
+        window.increment(1, T0);
+
+        assertEquals(59, window.increment(1, T0 + 1_000));
+        assertEquals(59, window.increment(1, T0 + 1_001));
+        assertEquals(1, window.increment(1, T0 + 59_000));
+        assertEquals(1, window.increment(1, T0 + 59_999));
+    }
+
+    @Test
+    void windowRollsOverAfterItsLength() {
+        LoginThrottle.Window window = new LoginThrottle.Window(60);
+        window.increment(1, T0);
+        assertTrue(window.increment(1, T0 + 10) > 0);
+
+        assertFalse(window.isExpired(T0 + 59_999));
+        assertTrue(window.isExpired(T0 + 60_000));
+        // The first event of the new window counts from zero and starts the next 60 seconds
+        assertEquals(0, window.increment(1, T0 + 60_000));
+        assertEquals(60, window.increment(1, T0 + 60_000));
+    }
+
+    @Test
+    void blockedForDoesNotCountAnAttempt() {
+        LoginThrottle.Window window = new LoginThrottle.Window(300);
+        window.increment(Integer.MAX_VALUE, T0);
+        window.increment(Integer.MAX_VALUE, T0);
+
+        assertEquals(0, window.blockedFor(3, T0 + 1_000));
+        assertEquals(0, window.blockedFor(3, T0 + 1_000));
+        window.increment(Integer.MAX_VALUE, T0 + 2_000);
+        assertEquals(298, window.blockedFor(3, T0 + 2_000));
+        assertEquals(0, window.blockedFor(3, T0 + 300_000));
+    }
+
+    @Test
+    void failuresBlockTheUsernameUntilASuccess() {
+        LoginThrottle throttle = throttle(0, 3);
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAllowed("Bob", null);
+            throttle.recordFailure("Bob");
+        }
+
+        TooManyAttemptsException e = assertThrows(TooManyAttemptsException.class, () -> throttle.checkAllowed(" bob ", null));
+        assertTrue(e.getRetryAfterSeconds() > 0 && e.getRetryAfterSeconds() <= 300);
+        assertDoesNotThrow(() -> throttle.checkAllowed("alice", null));
+
+        throttle.recordSuccess("BOB");
+        assertDoesNotThrow(() -> throttle.checkAllowed("bob", null));
+    }
+
+    @Test
+    void everyAttemptCountsAgainstTheAddress() {
+        LoginThrottle throttle = throttle(2, 0);
+        throttle.checkAllowed("a", "10.0.0.1");
+        throttle.checkAllowed("b", "10.0.0.1");
+
+        assertThrows(TooManyAttemptsException.class, () -> throttle.checkAllowed("c", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.checkAllowed("c", "10.0.0.2"));
+    }
+
+    private static LoginThrottle throttle(int maxAttemptsPerAddress, int maxFailuresPerUser) {
+        LoginThrottle throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "maxAttemptsPerAddress", maxAttemptsPerAddress);
+        ReflectionTestUtils.setField(throttle, "addressWindowSeconds", 60L);
+        ReflectionTestUtils.setField(throttle, "maxFailuresPerUser", maxFailuresPerUser);
+        ReflectionTestUtils.setField(throttle, "userWindowSeconds", 300L);
+        return throttle;
+    }
+}
@@ -0,0 +1,165 @@
+package com.crm.service.impl;
+
+import com.crm.dto.AuthResponse;
+import com.crm.model.RefreshToken;
+import com.crm.model.User;
+import com.crm.model.User.UserStatus;
+import com.crm.repository.RefreshTokenRepository;
+import com.crm.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTests {
+
+    private static final String PRESENTED = "presented-refresh-token";
+    private static final String FAMILY = "family-1";
+
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private JwtUtil jwtUtil;
+    @InjectMocks private AuthServiceImpl authService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authService, "refreshExpirationMs", 1_209_600_000L);
+        ReflectionTestUtils.setField(authService, "refreshReuseGraceMs", 10_000L);
+        user = new User();
+        user.setId(7L);
+        user.setStatus(UserStatus.ACTIVE);
+    }
+
+    @Test
+    void firstUseRotatesIntoTheSameFamily() {
+        stored(null);
+        when(refreshTokenRepository.markRotated(eq(1L), any())).thenReturn(1);
+        when(jwtUtil.generateToken(user)).thenReturn("access");
+
+        AuthResponse response = authService.refresh(PRESENTED);
+
+        assertEquals("access", response.getToken());
+        assertEquals(7L, response.getUserId());
+        assertNotNull(response.getRefreshToken());
+        assertNotEquals(PRESENTED, response.getRefreshToken());
+        RefreshToken issued = savedToken();
+        assertEquals(FAMILY, issued.getFamilyId());
+        assertEquals(sha256(response.getRefreshToken()), issued.getTokenHash());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyString());
+    }
+
+    @Test
+    void reuseWithinGraceIsAnsweredWithoutRevoking() {
+        stored(LocalDateTime.now().minusSeconds(2));
+        when(jwtUtil.generateToken(user)).thenReturn("access");
+
+        AuthResponse response = authService.refresh(PRESENTED);
+
+        assertEquals("access", response.getToken());
+        assertEquals(FAMILY, savedToken().getFamilyId());
+        // Already rotated, so it is not marked again
+        verify(refreshTokenRepository, never()).markRotated(anyLong(), any());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyString());
+    }
+
+    @Test
+    void losingTheRotationRaceCountsAsReuseWithinGrace() {
+        stored(null);
+        when(refreshTokenRepository.markRotated(eq(1L), any())).thenReturn(0);
+        when(jwtUtil.generateToken(user)).thenReturn("access");
+
+        assertEquals("access", authService.refresh(PRESENTED).getToken());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyString());
+    }
+
+    @Test
+    void replayAfterGraceRevokesTheFamily() {
+        stored(LocalDateTime.now().minusSeconds(60));
+
+        BadCredentialsException e = assertThrows(BadCredentialsException.class, () -> authService.refresh(PRESENTED));
+
+        assertEquals("Refresh token has already been used", e.getMessage());
+        verify(refreshTokenRepository).deleteByFamilyId(FAMILY);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void expiredTokenIsRejectedWithoutRevoking() {
+        RefreshToken current = stored(null);
+        current.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(PRESENTED));
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyString());
+        verify(refreshTokenRepository, never()).markRotated(anyLong(), any());
+    }
+
+    @Test
+    void inactiveUserLosesTheFamily() {
+        stored(null);
+        user.setStatus(UserStatus.PENDING);
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(PRESENTED));
+        verify(refreshTokenRepository).deleteByFamilyId(FAMILY);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void unknownOrMissingTokenIsRejected() {
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh("unknown"));
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(""));
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(null));
+    }
+
+    // The row the presented token resolves to; looked up by its SHA-256, never by the raw value
+    private RefreshToken stored(LocalDateTime rotatedAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(1L);
+        token.setFamilyId(FAMILY);
+        token.setUser(user);
+        token.setExpiresAt(LocalDateTime.now().plusDays(1));
+        token.setRotatedAt(rotatedAt);
+        when(refreshTokenRepository.findByTokenHashWithUser(sha256(PRESENTED))).thenReturn(Optional.of(token));
+        return token;
+    }
+
+    private RefreshToken savedToken() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        return saved.getValue();
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
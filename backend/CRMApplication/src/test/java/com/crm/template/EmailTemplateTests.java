@@ -0,0 +1,67 @@
+package com.crm.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailTemplateTests {
+
+    @Test
+    void mergesFieldsBetweenLiterals() {
+        EmailTemplate template = EmailTemplate.compile("welcome", "Hello {{ username }}, welcome to {{companyName}}!", false);
+
+        assertEquals("Hello bob, welcome to Acme!", template.render(Map.of("username", "bob", "companyName", "Acme")));
+    }
+
+    @Test
+    void escapesValuesInHtmlTemplates() {
+        EmailTemplate template = EmailTemplate.compile("html", "<p>{{name}}</p>", true);
+
+        assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot; &#39;s&lt;/b&gt;</p>",
+                template.render(Map.of("name", "<b>Tom & \"Jerry\" 's</b>")));
+    }
+
+    @Test
+    void leavesValuesAsIsInPlainTemplates() {
+        EmailTemplate template = EmailTemplate.compile("plain", "Name: {{name}}", false);
+
+        assertEquals("Name: <b>Tom & Jerry</b>", template.render(Map.of("name", "<b>Tom & Jerry</b>")));
+    }
+
+    @Test
+    void rendersMissingAndNullFieldsAsEmpty() {
+        EmailTemplate template = EmailTemplate.compile("missing", "[{{a}}][{{b}}]", true);
+        Map<String, Object> values = new HashMap<>();
+        values.put("b", null);
+
+        assertEquals("[][]", template.render(values));
+    }
+
+    @Test
+    void keepsUnclosedPlaceholderAsLiteral() {
+        EmailTemplate template = EmailTemplate.compile("unclosed", "Hi {{name}}, see {{link", true);
+
+        assertEquals("Hi bob, see {{link", template.render(Map.of("name", "bob", "link", "x")));
+    }
+
+    @Test
+    void keepsStrayClosingBracesAsLiteral() {
+        EmailTemplate template = EmailTemplate.compile("stray", "a }} b {{x}} c", false);
+
+        assertEquals("a }} b 1 c", template.render(Map.of("x", 1)));
+    }
+
+    @Test
+    void renderToAppendsToTheCallersBuffer() {
+        EmailTemplate template = EmailTemplate.compile("append", "{{n}};", false);
+        StringBuilder out = new StringBuilder("start:");
+
+        template.renderTo(Map.of("n", 1), out);
+        template.renderTo(Map.of("n", 2), out);
+
+        assertEquals("start:1;2;", out.toString());
+    }
+}
@@ -25,14 +25,48 @@ api.interceptors.request.use(
   }
 );
 
+// One refresh at a time: concurrent 401/403s wait for the same exchange
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const refreshToken = sessionStorage.getItem('refreshToken');
+    refreshPromise = axios
+      .post(`${import.meta.env.VITE_APP_API_URL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        sessionStorage.setItem('token', response.data.token);
+        sessionStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 // Response Interceptor: Handles global errors, like session expiry
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
     // If the error is 401 (Unauthorized) or 403 (Forbidden)
     if (error.response && (error.response.status === 401 || error.response.status === 403)) {
+      // The access token is short-lived: try the refresh token once before giving up
+      const original = error.config;
+      if (!original._retried && sessionStorage.getItem('refreshToken')) {
+        original._retried = true;
+        try {
+          const token = await refreshAccessToken();
+          original.headers['Authorization'] = `Bearer ${token}`;
+          return api(original);
+        } catch (refreshError) {
+          // Fall through to the session-expired handling below
+        }
+      }
+
       // Clear session storage
       sessionStorage.removeItem('token');
+      sessionStorage.removeItem('refreshToken');
       sessionStorage.removeItem('role');
       sessionStorage.removeItem('userId');
       
@@ -11,6 +11,7 @@ import AdminAnalytics from './AdminAnalytics';
 import EmailCampaigns from './EmailCampaigns';
 import SystemSettings from './SystemSettings';
 import Swal from 'sweetalert2';
+import api from '../../api';
 import CustomerApproval from './CustomerApproval';
 import CampaignApproval from './CampaignApproval';
 import InteractionApproval from './InteractionApproval';
@@ -158,7 +159,10 @@ const AdminDashboard = () => {
         confirmButtonText: 'Yes, logout!'
       }).then((result) => {
         if (result.isConfirmed) {
+          // Revoke the refresh token server-side; logging out locally doesn't wait for it
+          api.post('/auth/logout', { refreshToken: sessionStorage.getItem('refreshToken') }).catch(() => {});
           sessionStorage.removeItem('token');
+          sessionStorage.removeItem('refreshToken');
           sessionStorage.removeItem('role');
           sessionStorage.removeItem('userId');
           navigate('/login');
@@ -270,18 +270,12 @@ const EmailCampaigns = () => {
       html: `
         <input id="name" class="swal2-input" value="${campaign.name}" placeholder="Campaign Name">
         <input id="subject" class="swal2-input" value="${campaign.subject}" placeholder="Email Subject">
-        <select id="status" class="swal2-select">
-            <option value="draft" ${campaign.status === 'draft' ? 'selected' : ''}>Draft</option>
-            <option value="scheduled" ${campaign.status === 'scheduled' ? 'selected' : ''}>Scheduled</option>
-            <option value="sent" ${campaign.status === 'sent' ? 'selected' : ''}>Sent</option>
-        </select>
       `,
       showCancelButton: true,
       confirmButtonText: 'Save Changes',
       preConfirm: () => ({
         name: Swal.getPopup().querySelector('#name').value,
         subject: Swal.getPopup().querySelector('#subject').value,
-        status: Swal.getPopup().querySelector('#status').value,
       })
     }).then(async (result) => {
       if (result.isConfirmed) {
@@ -290,7 +284,7 @@ const EmailCampaigns = () => {
           Swal.fire('Updated!', 'Campaign has been updated.', 'success');
           fetchCampaigns();
         } catch (error) {
-          Swal.fire('Error!', 'Failed to update campaign.', 'error');
+          Swal.fire('Error!', error.response?.data?.message || 'Failed to update campaign.', 'error');
         }
       }
     });
@@ -170,9 +170,10 @@ const Login = () => {
         role: activeTab
       });
 
-      const { token, userId } = response.data;
+      const { token, userId, refreshToken } = response.data;
       
       sessionStorage.setItem('token', token);
+      sessionStorage.setItem('refreshToken', refreshToken);
       sessionStorage.setItem('role', activeTab);
       sessionStorage.setItem('userId', userId);
       
@@ -18,6 +18,7 @@ import CustomerInteractions from './CustomerInteractions';
 import MyCampaigns from './MyCampaigns';
 import CustomerEmails from './CustomerEmails'; // Import the new component
 import Swal from 'sweetalert2';
+import api from '../../api';
 
 // ... (Styled components are unchanged) ...
 
@@ -170,7 +171,10 @@ const CustomerDashboard = () => {
       confirmButtonText: 'Yes, logout!'
     }).then((result) => {
       if (result.isConfirmed) {
+        // Revoke the refresh token server-side; logging out locally doesn't wait for it
+        api.post('/auth/logout', { refreshToken: sessionStorage.getItem('refreshToken') }).catch(() => {});
         sessionStorage.removeItem('token');
+        sessionStorage.removeItem('refreshToken');
         sessionStorage.removeItem('role');
         sessionStorage.removeItem('userId');
         navigate('/login');